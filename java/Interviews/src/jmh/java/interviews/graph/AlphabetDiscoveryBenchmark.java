@@ -0,0 +1,127 @@
+package interviews.graph;
+
+import interviews.graph.discovery.AlphabetDiscovery;
+import interviews.graph.discovery.AlphabetDiscoveryEngine;
+import interviews.graph.discovery.EdgeExtractor;
+import interviews.graph.discovery.EngineSelector;
+import interviews.graph.discovery.PackedWords;
+import interviews.graph.discovery.PrecedenceGraph;
+import interviews.graph.discovery.PrecedenceIndex;
+import interviews.graph.discovery.StreamingAlphabetDiscovery;
+import interviews.graph.discovery.TieBreakPolicy;
+import interviews.graph.discovery.TopologicalSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole runs of every engine, and the extraction and ordering phases on their own.
+ * Throughput and sampled latency percentiles; run with -prof gc for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlphabetDiscoveryBenchmark {
+  @Param({"26", "1000"})
+  int alphabetSize;
+
+  @Param({"10000", "100000"})
+  int wordCount;
+
+  @Param({"8", "64"})
+  int wordLength;
+
+  @Param({"0", "64"})
+  int prefixDepth;
+
+  List<String> words;
+  PackedWords packedWords;
+  PrecedenceGraph graph;
+  PrecedenceIndex precedenceIndex;
+  int queryIndex;
+  ForkJoinPool forkJoinPool;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    this.words = SyntheticDictionary.generate(42, this.alphabetSize, this.wordCount, this.wordLength, this.prefixDepth, false)
+        .getWords();
+    this.packedWords = PackedWords.of(this.words);
+    this.graph = new AlphabetDiscovery(this.words).getGraph();
+    this.precedenceIndex = new PrecedenceIndex(this.graph);
+    this.forkJoinPool = new ForkJoinPool();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.forkJoinPool.shutdown();
+  }
+
+  @Benchmark
+  public Object sequential() {
+    return AlphabetDiscoveryEngine.SEQUENTIAL.discover(this.words);
+  }
+
+  @Benchmark
+  public Object selected() {
+    return EngineSelector.select(this.words).discover(this.words);
+  }
+
+  @Benchmark
+  public Object primitive() {
+    return new AlphabetDiscovery(this.words).getAlphabet();
+  }
+
+  @Benchmark
+  public Object parallel() {
+    return new AlphabetDiscovery(this.words, this.forkJoinPool).getAlphabet();
+  }
+
+  @Benchmark
+  public Object mismatch() {
+    return new AlphabetDiscovery(this.packedWords).getAlphabet();
+  }
+
+  @Benchmark
+  public Object streaming() {
+    return new StreamingAlphabetDiscovery().acceptAll(this.words.iterator()).getAlphabet();
+  }
+
+  @Benchmark
+  public Object extractEdges() {
+    EdgeExtractor edgeExtractor = new EdgeExtractor(new PrecedenceGraph());
+    edgeExtractor.acceptAll(this.words);
+    return edgeExtractor.getGraph();
+  }
+
+  @Benchmark
+  public Object orderSymbols() {
+    return TopologicalSort.sort(this.graph, TieBreakPolicy.READY_ORDER);
+  }
+
+  // one precedence query between symbols that vary from call to call
+  @Benchmark
+  public Object precedenceQuery() {
+    int symbolCount = this.graph.getSymbolCount();
+    this.queryIndex = (this.queryIndex + 1) & 0xFFFFFF;
+    return this.precedenceIndex.getPrecedence(
+        this.graph.getCharacter(this.queryIndex % symbolCount), this.graph.getCharacter(this.queryIndex * 31 % symbolCount));
+  }
+
+}
@@ -0,0 +1,178 @@
+package interviews.graph.collation;
+
+import com.google.common.primitives.UnsignedBytes;
+
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compiled form of a discovered alphabet: a dense table from character to rank, so that
+ * comparing two words costs one table lookup per character instead of an indexOf on the
+ * alphabet. Characters outside the alphabet rank after all of it, in character order.
+ * Words also encode to keys whose unsigned byte order is the collation order: one byte per
+ * character for alphabets of up to 255 characters, two otherwise, and an escape unit
+ * followed by the two bytes of the character for a character outside the alphabet.
+ */
+public class Collation implements Comparator<CharSequence> {
+  // unsigned lexicographic, i.e. memcmp order
+  public static final Comparator<byte[]> KEY_ORDER = UnsignedBytes.lexicographicalComparator();
+
+  final String alphabet;
+  // rank of each character up to the largest one in the alphabet
+  final int[] ranks;
+
+  public Collation(String alphabet) {
+    this.alphabet = alphabet;
+
+    int maxCharacter = -1;
+    for(int characterIndex = 0; characterIndex < alphabet.length(); characterIndex++) {
+      maxCharacter = Math.max(maxCharacter, alphabet.charAt(characterIndex));
+    }
+
+    this.ranks = new int[maxCharacter + 1];
+    for(int character = 0; character < this.ranks.length; character++) {
+      this.ranks[character] = alphabet.length() + character;
+    }
+    for(int characterIndex = 0; characterIndex < alphabet.length(); characterIndex++) {
+      char character = alphabet.charAt(characterIndex);
+      if(this.ranks[character] < alphabet.length()) {
+        throw new IllegalArgumentException("Character " + character + " appears twice in the alphabet");
+      }
+      this.ranks[character] = characterIndex;
+    }
+  }
+
+  public String getAlphabet() {
+    return this.alphabet;
+  }
+
+  // the position in the alphabet, or the alphabet length plus the character when it is not in it
+  public int getRank(char character) {
+    return character < this.ranks.length ? this.ranks[character] : this.alphabet.length() + character;
+  }
+
+  @Override
+  public int compare(CharSequence word1, CharSequence word2) {
+    int commonLength = Math.min(word1.length(), word2.length());
+    for(int characterIndex = 0; characterIndex < commonLength; characterIndex++) {
+      char character1 = word1.charAt(characterIndex);
+      char character2 = word2.charAt(characterIndex);
+      if(character1 != character2) {
+        return getRank(character1) - getRank(character2);
+      }
+    }
+
+    // a prefix comes first
+    return word1.length() - word2.length();
+  }
+
+  // same contract as Arrays.binarySearch; the words must be sorted by this collation
+  public int binarySearch(String[] words, CharSequence word) {
+    return binarySearch(words, 0, words.length, word);
+  }
+
+  public int binarySearch(String[] words, int fromIndex, int toIndex, CharSequence word) {
+    int low = fromIndex;
+    int high = toIndex - 1;
+    while(low <= high) {
+      int middle = (low + high) >>> 1;
+      int comparison = compare(words[middle], word);
+      if(comparison < 0) {
+        low = middle + 1;
+      } else if(comparison > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+
+    return -(low + 1);
+  }
+
+  // MSD radix sort on the common pool
+  public void sort(String[] words) {
+    sort(words, ForkJoinPool.commonPool());
+  }
+
+  public void sort(String[] words, ForkJoinPool forkJoinPool) {
+    if(words.length < 2) {
+      return;
+    }
+
+    forkJoinPool.invoke(new RadixSort(this, words, new String[words.length], 0, words.length, 0));
+  }
+
+  // bytes per rank in keys
+  public int getKeyUnitLength() {
+    return this.alphabet.length() < 0xFF ? 1 : 2;
+  }
+
+  public int getKeyLength(CharSequence word) {
+    int keyUnitLength = getKeyUnitLength();
+    int keyLength = 0;
+    for(int characterIndex = 0; characterIndex < word.length(); characterIndex++) {
+      keyLength += getRank(word.charAt(characterIndex)) < this.alphabet.length() ? keyUnitLength : keyUnitLength + 2;
+    }
+
+    return keyLength;
+  }
+
+  public byte[] getKey(CharSequence word) {
+    ByteBuffer key = ByteBuffer.allocate(getKeyLength(word));
+    putKey(word, key);
+    return key.array();
+  }
+
+  // writes the word's key at the buffer's position; a prefix's key is a prefix of the word's key
+  public void putKey(CharSequence word, ByteBuffer buffer) {
+    boolean singleByteUnits = getKeyUnitLength() == 1;
+    for(int characterIndex = 0; characterIndex < word.length(); characterIndex++) {
+      char character = word.charAt(characterIndex);
+      int rank = getRank(character);
+      // the escape unit is above every rank in the alphabet
+      int keyUnit = rank < this.alphabet.length() ? rank : singleByteUnits ? 0xFF : 0xFFFF;
+      if(singleByteUnits) {
+        buffer.put((byte) keyUnit);
+      } else {
+        buffer.putShort((short) keyUnit);
+      }
+      if(rank >= this.alphabet.length()) {
+        buffer.putChar(character);
+      }
+    }
+  }
+
+  public String getWord(byte[] key) {
+    return getWord(key, 0, key.length);
+  }
+
+  // decodes a key written by putKey
+  public String getWord(byte[] key, int offset, int length) {
+    ByteBuffer buffer = ByteBuffer.wrap(key, offset, length);
+    boolean singleByteUnits = getKeyUnitLength() == 1;
+    StringBuilder word = new StringBuilder(length);
+    while(buffer.hasRemaining()) {
+      int keyUnit = singleByteUnits ? buffer.get() & 0xFF : buffer.getShort() & 0xFFFF;
+      word.append(keyUnit < this.alphabet.length() ? this.alphabet.charAt(keyUnit) : buffer.getChar());
+    }
+
+    return word.toString();
+  }
+
+  // radix buckets: 0 for words that end before the position, one per alphabet character,
+  // and a last one for characters outside the alphabet
+  int getBucketCount() {
+    return this.alphabet.length() + 2;
+  }
+
+  int getBucket(String word, int characterIndex) {
+    if(characterIndex >= word.length()) {
+      return 0;
+    }
+
+    int rank = getRank(word.charAt(characterIndex));
+    return rank < this.alphabet.length() ? rank + 1 : this.alphabet.length() + 1;
+  }
+
+}
@@ -0,0 +1,255 @@
+package interviews.graph.collation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Sorts a newline delimited UTF-8 file by a collation when it does not fit in the heap. Lines
+ * are read into runs of bounded size, each run is radix sorted and spilled to a temporary file
+ * as length prefixed collation keys, and the runs are merged through FileChannels comparing
+ * keys as unsigned bytes. More runs than the merge width are merged in several passes.
+ */
+public class ExternalMergeSort {
+  static final int DEFAULT_MERGE_WIDTH = 64;
+  static final int BUFFER_SIZE = 64 * 1024;
+  // a String's header and array header, charged to each line against the run size
+  static final int WORD_OVERHEAD = 64;
+
+  final Collation collation;
+  final Path temporaryDirectory;
+  final long maxRunBytes;
+  final ForkJoinPool forkJoinPool;
+  int mergeWidth = DEFAULT_MERGE_WIDTH;
+  int runCount;
+  int mergePassCount;
+
+  public ExternalMergeSort(Collation collation, Path temporaryDirectory, long maxRunBytes) {
+    this(collation, temporaryDirectory, maxRunBytes, ForkJoinPool.commonPool());
+  }
+
+  public ExternalMergeSort(Collation collation, Path temporaryDirectory, long maxRunBytes, ForkJoinPool forkJoinPool) {
+    this.collation = collation;
+    this.temporaryDirectory = temporaryDirectory;
+    this.maxRunBytes = maxRunBytes;
+    this.forkJoinPool = forkJoinPool;
+  }
+
+  // runs spilled by the last sort
+  public int getRunCount() {
+    return this.runCount;
+  }
+
+  // passes over the runs before the final merge
+  public int getMergePassCount() {
+    return this.mergePassCount;
+  }
+
+  public void sort(Path inputPath, Path outputPath) throws IOException {
+    // every run file created, so that a failed sort leaves none behind
+    List<Path> temporaryPaths = new ArrayList<>();
+    try {
+      List<Path> runPaths = writeRuns(inputPath, temporaryPaths);
+      this.runCount = runPaths.size();
+      this.mergePassCount = 0;
+
+      while(runPaths.size() > this.mergeWidth) {
+        List<Path> mergedRunPaths = new ArrayList<>();
+        for(int runIndex = 0; runIndex < runPaths.size(); runIndex += this.mergeWidth) {
+          List<Path> mergeRunPaths = runPaths.subList(runIndex, Math.min(runIndex + this.mergeWidth, runPaths.size()));
+          Path mergedRunPath = createRunPath(temporaryPaths);
+          merge(mergeRunPaths, mergedRunPath, false);
+          mergedRunPaths.add(mergedRunPath);
+          for(Path runPath : mergeRunPaths) {
+            Files.delete(runPath);
+          }
+        }
+        runPaths = mergedRunPaths;
+        this.mergePassCount++;
+      }
+
+      merge(runPaths, outputPath, true);
+    } finally {
+      for(Path temporaryPath : temporaryPaths) {
+        Files.deleteIfExists(temporaryPath);
+      }
+    }
+  }
+
+  Path createRunPath(List<Path> temporaryPaths) throws IOException {
+    Path runPath = Files.createTempFile(this.temporaryDirectory, "run", ".keys");
+    temporaryPaths.add(runPath);
+    return runPath;
+  }
+
+  List<Path> writeRuns(Path inputPath, List<Path> temporaryPaths) throws IOException {
+    List<Path> runPaths = new ArrayList<>();
+    try(BufferedReader reader = Files.newBufferedReader(inputPath, StandardCharsets.UTF_8)) {
+      List<String> words = new ArrayList<>();
+      long runBytes = 0;
+      for(String word = reader.readLine(); word != null; word = reader.readLine()) {
+        words.add(word);
+        runBytes += WORD_OVERHEAD + 2L * word.length();
+        if(runBytes >= this.maxRunBytes) {
+          runPaths.add(writeRun(words, createRunPath(temporaryPaths)));
+          words.clear();
+          runBytes = 0;
+        }
+      }
+
+      if(!words.isEmpty()) {
+        runPaths.add(writeRun(words, createRunPath(temporaryPaths)));
+      }
+    }
+
+    return runPaths;
+  }
+
+  Path writeRun(List<String> wordList, Path runPath) throws IOException {
+    String[] words = wordList.toArray(new String[wordList.size()]);
+    this.collation.sort(words, this.forkJoinPool);
+
+    try(FileChannel runChannel = FileChannel.open(runPath, StandardOpenOption.WRITE)) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+      for(String word : words) {
+        int keyLength = this.collation.getKeyLength(word);
+        buffer = ensureRemaining(runChannel, buffer, 4 + keyLength);
+        buffer.putInt(keyLength);
+        this.collation.putKey(word, buffer);
+      }
+      flush(runChannel, buffer);
+    }
+
+    return runPath;
+  }
+
+  // merges key runs into a key run, or into text lines when decoding
+  void merge(List<Path> runPaths, Path outputPath, boolean decode) throws IOException {
+    PriorityQueue<RunReader> runReaders = new PriorityQueue<>();
+    try(FileChannel outputChannel = FileChannel.open(outputPath,
+        StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      for(Path runPath : runPaths) {
+        RunReader runReader = new RunReader(FileChannel.open(runPath, StandardOpenOption.READ));
+        if(runReader.next()) {
+          runReaders.add(runReader);
+        } else {
+          runReader.close();
+        }
+      }
+
+      ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+      while(!runReaders.isEmpty()) {
+        RunReader runReader = runReaders.remove();
+        if(decode) {
+          byte[] line = (this.collation.getWord(runReader.key) + '\n').getBytes(StandardCharsets.UTF_8);
+          buffer = ensureRemaining(outputChannel, buffer, line.length);
+          buffer.put(line);
+        } else {
+          buffer = ensureRemaining(outputChannel, buffer, 4 + runReader.key.length);
+          buffer.putInt(runReader.key.length);
+          buffer.put(runReader.key);
+        }
+
+        if(runReader.next()) {
+          runReaders.add(runReader);
+        } else {
+          runReader.close();
+        }
+      }
+      flush(outputChannel, buffer);
+    } finally {
+      for(RunReader runReader : runReaders) {
+        runReader.close();
+      }
+    }
+  }
+
+  // flushes the buffer when the record does not fit, and grows it for records larger than it
+  static ByteBuffer ensureRemaining(FileChannel channel, ByteBuffer buffer, int length) throws IOException {
+    if(buffer.remaining() < length) {
+      flush(channel, buffer);
+      if(buffer.capacity() < length) {
+        buffer = ByteBuffer.allocateDirect(length);
+      }
+    }
+
+    return buffer;
+  }
+
+  static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    while(buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  // the current key of a run; readers order by it, so the queue yields the smallest key
+  static class RunReader implements Comparable<RunReader> {
+    final FileChannel channel;
+    ByteBuffer buffer;
+    byte[] key;
+
+    RunReader(FileChannel channel) {
+      this.channel = channel;
+      this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+      this.buffer.flip();
+    }
+
+    // reads the next key; false at the end of the run
+    boolean next() throws IOException {
+      if(!fill(4)) {
+        return false;
+      }
+      int keyLength = this.buffer.getInt();
+      if(!fill(keyLength)) {
+        throw new IOException("Run ends inside a key");
+      }
+      this.key = new byte[keyLength];
+      this.buffer.get(this.key);
+      return true;
+    }
+
+    // makes length bytes available in the buffer; false when the run ends first
+    boolean fill(int length) throws IOException {
+      if(this.buffer.remaining() >= length) {
+        return true;
+      }
+
+      if(this.buffer.capacity() < length) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(length);
+        buffer.put(this.buffer);
+        this.buffer = buffer;
+      } else {
+        this.buffer.compact();
+      }
+      while(this.buffer.position() < length) {
+        if(this.channel.read(this.buffer) < 0) {
+          this.buffer.flip();
+          return false;
+        }
+      }
+      this.buffer.flip();
+      return true;
+    }
+
+    void close() throws IOException {
+      this.channel.close();
+    }
+
+    @Override
+    public int compareTo(RunReader other) {
+      return Collation.KEY_ORDER.compare(this.key, other.key);
+    }
+  }
+
+}
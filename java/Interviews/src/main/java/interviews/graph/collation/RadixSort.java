@@ -0,0 +1,123 @@
+package interviews.graph.collation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Most significant digit first radix sort by collation rank. Each pass distributes a range
+ * into buckets by the character at one position, through an auxiliary array, and buckets
+ * above the parallel threshold are sorted as separate tasks. The largest bucket is sorted
+ * in the same pass loop rather than by recursion, so that the stack stays logarithmic in
+ * the number of words whatever their shared prefixes.
+ */
+class RadixSort extends RecursiveAction {
+  private static final long serialVersionUID = 1L;
+
+  // below this, or below a sixteenth of the bucket count, a range is sorted by comparison
+  static final int COMPARISON_THRESHOLD = 32;
+  // words per task
+  static final int PARALLEL_THRESHOLD = 8192;
+
+  final Collation collation;
+  final String[] words;
+  final String[] auxiliaryWords;
+  final int fromIndex;
+  final int toIndex;
+  final int characterIndex;
+
+  RadixSort(Collation collation, String[] words, String[] auxiliaryWords, int fromIndex, int toIndex, int characterIndex) {
+    this.collation = collation;
+    this.words = words;
+    this.auxiliaryWords = auxiliaryWords;
+    this.fromIndex = fromIndex;
+    this.toIndex = toIndex;
+    this.characterIndex = characterIndex;
+  }
+
+  @Override
+  protected void compute() {
+    List<RadixSort> subtasks = new ArrayList<>();
+    sort(this.fromIndex, this.toIndex, this.characterIndex, subtasks);
+    invokeAll(subtasks);
+  }
+
+  // sorts the range of words sharing their first characterIndex characters; large buckets
+  // are added to the subtasks when given, instead of being sorted here
+  void sort(int fromIndex, int toIndex, int characterIndex, List<RadixSort> subtasks) {
+    int bucketCount = this.collation.getBucketCount();
+    int[] bucketEnds = new int[bucketCount + 1];
+
+    while(toIndex - fromIndex > 1) {
+      int wordCount = toIndex - fromIndex;
+      if(wordCount < COMPARISON_THRESHOLD || wordCount < bucketCount >>> 4) {
+        Arrays.sort(this.words, fromIndex, toIndex, this.collation);
+        return;
+      }
+
+      // count, then place each word after the ones in lower buckets
+      Arrays.fill(bucketEnds, 0);
+      for(int wordIndex = fromIndex; wordIndex < toIndex; wordIndex++) {
+        bucketEnds[this.collation.getBucket(this.words[wordIndex], characterIndex) + 1]++;
+      }
+      for(int bucket = 1; bucket <= bucketCount; bucket++) {
+        bucketEnds[bucket] += bucketEnds[bucket - 1];
+      }
+      for(int wordIndex = fromIndex; wordIndex < toIndex; wordIndex++) {
+        String word = this.words[wordIndex];
+        this.auxiliaryWords[fromIndex + bucketEnds[this.collation.getBucket(word, characterIndex)]++] = word;
+      }
+      System.arraycopy(this.auxiliaryWords, fromIndex, this.words, fromIndex, wordCount);
+
+      // words that ended are equal and sorted; find the largest of the other buckets
+      int largestBucket = -1;
+      int largestBucketSize = 0;
+      for(int bucket = 1; bucket < bucketCount; bucket++) {
+        int bucketSize = bucketEnds[bucket] - bucketEnds[bucket - 1];
+        if(bucketSize > largestBucketSize) {
+          largestBucket = bucket;
+          largestBucketSize = bucketSize;
+        }
+      }
+      if(largestBucket < 0) {
+        return;
+      }
+
+      int largestFromIndex = fromIndex + bucketEnds[largestBucket - 1];
+      int largestToIndex = fromIndex + bucketEnds[largestBucket];
+      for(int bucket = 1; bucket < bucketCount; bucket++) {
+        int bucketFromIndex = fromIndex + bucketEnds[bucket - 1];
+        int bucketToIndex = fromIndex + bucketEnds[bucket];
+        if(bucket != largestBucket && bucketToIndex - bucketFromIndex > 1) {
+          sortBucket(bucket, bucketFromIndex, bucketToIndex, characterIndex, subtasks);
+        }
+      }
+
+      // characters outside the alphabet only share a bucket, not a character
+      if(largestBucket == bucketCount - 1) {
+        Arrays.sort(this.words, largestFromIndex, largestToIndex, this.collation);
+        return;
+      }
+      if(subtasks != null && largestBucketSize >= PARALLEL_THRESHOLD) {
+        subtasks.add(new RadixSort(this.collation, this.words, this.auxiliaryWords, largestFromIndex, largestToIndex, characterIndex + 1));
+        return;
+      }
+
+      fromIndex = largestFromIndex;
+      toIndex = largestToIndex;
+      characterIndex++;
+    }
+  }
+
+  void sortBucket(int bucket, int fromIndex, int toIndex, int characterIndex, List<RadixSort> subtasks) {
+    if(bucket == this.collation.getBucketCount() - 1) {
+      Arrays.sort(this.words, fromIndex, toIndex, this.collation);
+    } else if(subtasks != null && toIndex - fromIndex >= PARALLEL_THRESHOLD) {
+      subtasks.add(new RadixSort(this.collation, this.words, this.auxiliaryWords, fromIndex, toIndex, characterIndex + 1));
+    } else {
+      sort(fromIndex, toIndex, characterIndex + 1, null);
+    }
+  }
+
+}
@@ -0,0 +1,102 @@
+package interviews.graph.discovery;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Discovered alphabets keyed by a 128 bit hash of their word list, so a resubmitted list is
+ * not processed again. Entries are weighed by the size of their graph and evicted least
+ * recently used first once the maximum weight is reached.
+ */
+public class AlphabetCache {
+  static final long DEFAULT_MAX_WEIGHT = 1 << 24;
+  static final AlphabetCache SHARED = new AlphabetCache(DEFAULT_MAX_WEIGHT);
+
+  final Cache<HashCode, DiscoveredAlphabet> cache;
+  final AlphabetDiscoveryEngine alphabetDiscoveryEngine;
+
+  public AlphabetCache(long maxWeight) {
+    this(maxWeight, AlphabetDiscoveryEngine.PRIMITIVE);
+  }
+
+  public AlphabetCache(long maxWeight, AlphabetDiscoveryEngine alphabetDiscoveryEngine) {
+    this.alphabetDiscoveryEngine = alphabetDiscoveryEngine;
+    this.cache = CacheBuilder.newBuilder()
+        .maximumWeight(maxWeight)
+        .weigher(new Weigher<HashCode, DiscoveredAlphabet>() {
+          @Override
+          public int weigh(HashCode hashCode, DiscoveredAlphabet discoveredAlphabet) {
+            return weight(discoveredAlphabet);
+          }
+        })
+        .recordStats()
+        .build();
+  }
+
+  // process wide instance
+  public static AlphabetCache getShared() {
+    return SHARED;
+  }
+
+  public DiscoveredAlphabet get(final List<String> words) {
+    try {
+      return this.cache.get(hash(words), new Callable<DiscoveredAlphabet>() {
+        @Override
+        public DiscoveredAlphabet call() {
+          return alphabetDiscoveryEngine.discover(words);
+        }
+      });
+    } catch(ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  public DiscoveredAlphabet getIfPresent(Iterable<? extends CharSequence> words) {
+    return this.cache.getIfPresent(hash(words));
+  }
+
+  // for results computed elsewhere, e.g. from a stream of the same words
+  public void put(Iterable<? extends CharSequence> words, DiscoveredAlphabet discoveredAlphabet) {
+    this.cache.put(hash(words), discoveredAlphabet);
+  }
+
+  // hit, miss, load and eviction counts
+  public CacheStats getStats() {
+    return this.cache.stats();
+  }
+
+  public long getSize() {
+    return this.cache.size();
+  }
+
+  public void invalidateAll() {
+    this.cache.invalidateAll();
+  }
+
+  // length prefixed, so that word boundaries are part of the key
+  public static HashCode hash(Iterable<? extends CharSequence> words) {
+    Hasher hasher = Hashing.murmur3_128().newHasher();
+    int wordCount = 0;
+    for(CharSequence word : words) {
+      hasher.putInt(word.length()).putUnencodedChars(word);
+      wordCount++;
+    }
+
+    return hasher.putInt(wordCount).hash();
+  }
+
+  static int weight(DiscoveredAlphabet discoveredAlphabet) {
+    PrecedenceGraph graph = discoveredAlphabet.getGraph();
+    return 1 + graph.getSymbolCount() + graph.getEdgeCount() + discoveredAlphabet.getAlphabet().length();
+  }
+
+}
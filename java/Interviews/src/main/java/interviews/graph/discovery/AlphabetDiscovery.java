@@ -0,0 +1,312 @@
+package interviews.graph.discovery;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Alphabet discovery over a PrecedenceGraph; characters are compared and linked
+ * through primitive symbol ids, so nothing is boxed while the words are processed.
+ * Every character of the words is a symbol, so characters that are never compared
+ * are placed by the tie break policy.
+ * Without validation contradicting input still produces an alphabet: symbols on a cycle go
+ * last and a prefix following its extension is ignored. With validation the first
+ * contradicting pair throws InconsistentDictionaryException, and edges are extracted
+ * sequentially so that it is the first in word order.
+ * Given PackedWords, the words are compared in place in the packed array.
+ * With stop when determined set, edges are extracted sequentially and reading stops once the
+ * words read fix a single order over every symbol seen; on consistent input no later word can
+ * change that order. Validation still reads every word, so that a contradicting pair after
+ * that point throws as well.
+ */
+public class AlphabetDiscovery {
+  final List<String> words;
+  String alphabet;
+  final PrecedenceGraph graph;
+  final TieBreakPolicy tieBreakPolicy;
+  final ForkJoinPool forkJoinPool;
+  int parallelThreshold = PARALLEL_THRESHOLD;
+  DiscoveryListener discoveryListener = DiscoveryListener.NONE;
+  DiscoveryMetrics metrics;
+  boolean validating;
+  // null unless reading stops once the order is determined
+  LateSymbolPolicy lateSymbolPolicy;
+  long readWordCount;
+
+  // words per fork join leaf
+  static final int PARALLEL_THRESHOLD = 16384;
+  // words between checks of a discovery budget
+  static final int BUDGET_CHECK_INTERVAL = 1024;
+
+  public AlphabetDiscovery(List<String> words) {
+    this(words, TieBreakPolicy.READY_ORDER);
+  }
+
+  public AlphabetDiscovery(List<String> words, TieBreakPolicy tieBreakPolicy) {
+    this(words, tieBreakPolicy, null);
+  }
+
+  // extracts edges in parallel on the pool; the graph is the same as the sequential one
+  public AlphabetDiscovery(List<String> words, ForkJoinPool forkJoinPool) {
+    this(words, TieBreakPolicy.READY_ORDER, forkJoinPool);
+  }
+
+  public AlphabetDiscovery(List<String> words, TieBreakPolicy tieBreakPolicy, ForkJoinPool forkJoinPool) {
+    this.words = words;
+    this.graph = new PrecedenceGraph();
+    this.tieBreakPolicy = tieBreakPolicy;
+    this.forkJoinPool = forkJoinPool;
+  }
+
+  public String getAlphabet() {
+    if(this.alphabet != null) {
+      return this.alphabet;
+    }
+
+    this.readWordCount = this.words.size();
+    if(this.words.size() == 0) {
+      this.alphabet = "";
+      return this.alphabet;
+    }
+
+    if(this.words.size() == 1) {
+      this.alphabet = this.words.get(0);
+      return this.alphabet;
+    }
+
+    this.metrics = new DiscoveryMetrics();
+    long startNanos = System.nanoTime();
+    EdgeExtractor edgeExtractor = processWords();
+    long extractedNanos = System.nanoTime();
+    phaseCompleted(DiscoveryMetrics.Phase.EXTRACT_EDGES, extractedNanos - startNanos);
+
+    this.alphabet = computeAlphabet(this.graph, this.tieBreakPolicy);
+    phaseCompleted(DiscoveryMetrics.Phase.ORDER_SYMBOLS, System.nanoTime() - extractedNanos);
+
+    this.metrics.recordWords(this.readWordCount);
+    this.metrics.recordCharactersCompared(edgeExtractor.getCharactersCompared());
+    this.metrics.recordEdgePairs(edgeExtractor.getEdgePairCount());
+    this.metrics.recordGraphSize(this.graph.getSymbolCount(), this.graph.getEdgeCount());
+    this.discoveryListener.discoveryCompleted(this.metrics);
+
+    return this.alphabet;
+  }
+
+  // the alphabet of the words processed before the budget ran out, which is the one getAlphabet
+  // gives when the budget lasts; edges are extracted sequentially, checking the budget every
+  // BUDGET_CHECK_INTERVAL words, and ordering the graph found takes time linear in its size
+  public PartialAlphabet getAlphabet(DiscoveryBudget budget) {
+    long startNanos = System.nanoTime();
+    PrecedenceGraph graph = new PrecedenceGraph();
+    EdgeExtractor edgeExtractor = new EdgeExtractor(graph).setValidating(this.validating);
+    int wordEndIndex = (int) Math.min(this.words.size(), budget.getWordLimit());
+    int processedWordCount = 0;
+    while(processedWordCount < wordEndIndex && !budget.isTimeExhausted(startNanos)) {
+      int chunkEndIndex = Math.min(wordEndIndex, processedWordCount + BUDGET_CHECK_INTERVAL);
+      if(this.words instanceof PackedWords) {
+        edgeExtractor.acceptAll((PackedWords) this.words, processedWordCount, chunkEndIndex);
+      } else {
+        edgeExtractor.acceptAll(this.words.subList(processedWordCount, chunkEndIndex));
+      }
+      processedWordCount = chunkEndIndex;
+    }
+
+    String alphabet;
+    if(processedWordCount == this.words.size() && this.words.size() <= 1) {
+      alphabet = this.words.isEmpty() ? "" : this.words.get(0);
+    } else {
+      alphabet = computeAlphabet(graph, this.tieBreakPolicy);
+    }
+
+    StringBuilder unconstrainedSymbols = new StringBuilder();
+    for(int symbolId = 0; symbolId < graph.getSymbolCount(); symbolId++) {
+      if(graph.getInEdgeCount(symbolId) == 0 && graph.nextSuccessor(symbolId, 0) < 0) {
+        unconstrainedSymbols.append(graph.getCharacter(symbolId));
+      }
+    }
+
+    return new PartialAlphabet(graph, alphabet, unconstrainedSymbols.toString(), processedWordCount, this.words.size());
+  }
+
+  public AlphabetDiscovery setDiscoveryListener(DiscoveryListener discoveryListener) {
+    this.discoveryListener = discoveryListener;
+    return this;
+  }
+
+  public AlphabetDiscovery setValidating(boolean validating) {
+    this.validating = validating;
+    return this;
+  }
+
+  // stops reading words once the order is determined, with the policy for symbols seen later;
+  // null reads every word, as does validation
+  public AlphabetDiscovery setStopWhenDetermined(LateSymbolPolicy lateSymbolPolicy) {
+    this.lateSymbolPolicy = lateSymbolPolicy;
+    return this;
+  }
+
+  // the words compared, fewer than all of them when reading stopped early
+  public long getReadWordCount() {
+    getAlphabet();
+    return this.readWordCount;
+  }
+
+  // null until the alphabet has been computed from more than one word
+  public DiscoveryMetrics getMetrics() {
+    return this.metrics;
+  }
+
+  void phaseCompleted(DiscoveryMetrics.Phase phase, long elapsedNanos) {
+    this.metrics.recordPhase(phase, elapsedNanos);
+    this.discoveryListener.phaseCompleted(phase, elapsedNanos);
+  }
+
+  public PrecedenceGraph getGraph() {
+    getAlphabet();
+    return this.graph;
+  }
+
+  // every alphabet consistent with the words, lazily, in first seen order of the symbols;
+  // none when the words contain a cycle
+  public Iterator<String> getAlphabets() {
+    final PrecedenceGraph graph = getOrderGraph();
+    final TopologicalOrders topologicalOrders = new TopologicalOrders(graph);
+    return new Iterator<String>() {
+      @Override
+      public boolean hasNext() {
+        return topologicalOrders.hasNext();
+      }
+
+      @Override
+      public String next() {
+        StringBuilder alphabet = new StringBuilder();
+        for(int symbolId : topologicalOrders.next()) {
+          alphabet.append(graph.getCharacter(symbolId));
+        }
+        return alphabet.toString();
+      }
+    };
+  }
+
+  // true when the words determine the whole order, in O(V+E)
+  public boolean isAlphabetUnique() {
+    return TopologicalSort.isUnique(getOrderGraph());
+  }
+
+  // the number of consistent alphabets, counting no further than the limit
+  public long countAlphabets(long limit) {
+    return TopologicalOrders.count(getOrderGraph(), limit);
+  }
+
+  // the graph of the words, including the characters of a lone word, which getAlphabet does not extract
+  PrecedenceGraph getOrderGraph() {
+    getAlphabet();
+    if(this.words.size() == 1 && this.graph.getSymbolCount() == 0) {
+      processWords();
+    }
+
+    return this.graph;
+  }
+
+  // process words creating a directed acyclic graph
+  EdgeExtractor processWords() {
+    EdgeExtractor edgeExtractor = new EdgeExtractor(this.graph).setValidating(this.validating);
+    this.readWordCount = this.words.size();
+    // a contradicting pair can follow the point where the order is determined
+    if(this.lateSymbolPolicy != null && !this.validating) {
+      processWordsUntilDetermined(edgeExtractor);
+    } else if(this.forkJoinPool != null && this.words.size() > this.parallelThreshold && !this.validating) {
+      edgeExtractor.merge(this.forkJoinPool.invoke(
+          new ParallelEdgeExtraction(this.words, 0, this.words.size(), this.parallelThreshold)));
+    } else {
+      edgeExtractor.acceptAll(this.words);
+    }
+
+    return edgeExtractor;
+  }
+
+  // a total order needs a single source, which the graph counts as it changes, so the full
+  // uniqueness check only runs when that holds and edges were added since the last check,
+  // at most once every BUDGET_CHECK_INTERVAL words
+  void processWordsUntilDetermined(EdgeExtractor edgeExtractor) {
+    int wordCount = this.words.size();
+    int checkedEdgeCount = -1;
+    this.readWordCount = 0;
+    int wordIndex = 0;
+    while(wordIndex < wordCount) {
+      int chunkEndIndex = Math.min(wordCount, wordIndex + BUDGET_CHECK_INTERVAL);
+      if(this.words instanceof PackedWords) {
+        edgeExtractor.acceptAll((PackedWords) this.words, wordIndex, chunkEndIndex);
+      } else {
+        edgeExtractor.acceptAll(this.words.subList(wordIndex, chunkEndIndex));
+      }
+      this.readWordCount += chunkEndIndex - wordIndex;
+      wordIndex = chunkEndIndex;
+
+      if(this.graph.getSourceCount() != 1 || this.graph.getEdgeCount() == checkedEdgeCount) {
+        continue;
+      }
+      checkedEdgeCount = this.graph.getEdgeCount();
+      if(!TopologicalSort.isUnique(this.graph)) {
+        continue;
+      }
+
+      if(this.lateSymbolPolicy == LateSymbolPolicy.IGNORE) {
+        return;
+      }
+      int newSymbolWordIndex = findNewSymbolWord(wordIndex);
+      if(newSymbolWordIndex == wordCount) {
+        return;
+      }
+      // the pair ending at that word is the first one compared again; pair indexes stay word indexes
+      edgeExtractor.previousWord = this.words.get(newSymbolWordIndex - 1);
+      edgeExtractor.wordCount = newSymbolWordIndex;
+      wordIndex = newSymbolWordIndex;
+    }
+  }
+
+  // the index of the first word from wordIndex on with a character not in the graph, or the word count
+  int findNewSymbolWord(int wordIndex) {
+    if(this.words instanceof PackedWords) {
+      PackedWords packedWords = (PackedWords) this.words;
+      for(; wordIndex < packedWords.size(); wordIndex++) {
+        for(int characterIndex = packedWords.offsets[wordIndex]; characterIndex < packedWords.offsets[wordIndex + 1]; characterIndex++) {
+          if(this.graph.getSymbolId(packedWords.characters[characterIndex]) < 0) {
+            return wordIndex;
+          }
+        }
+      }
+      return wordIndex;
+    }
+
+    for(; wordIndex < this.words.size(); wordIndex++) {
+      String word = this.words.get(wordIndex);
+      for(int characterIndex = 0; characterIndex < word.length(); characterIndex++) {
+        if(this.graph.getSymbolId(word.charAt(characterIndex)) < 0) {
+          return wordIndex;
+        }
+      }
+    }
+    return wordIndex;
+  }
+
+  static String computeAlphabet(
+      final PrecedenceGraph graph,
+      final TieBreakPolicy tieBreakPolicy) {
+
+    StringBuilder alphabet = new StringBuilder();
+
+    int[] order = TopologicalSort.sort(graph, tieBreakPolicy);
+    for(int symbolId : order) {
+      alphabet.append(graph.getCharacter(symbolId));
+    }
+
+    // symbols on a cycle never become ready; keep them, as the priority queue did
+    for(int symbolId : TopologicalSort.remainingSymbols(graph, order)) {
+      alphabet.append(graph.getCharacter(symbolId));
+    }
+
+    return alphabet.toString();
+  }
+
+}
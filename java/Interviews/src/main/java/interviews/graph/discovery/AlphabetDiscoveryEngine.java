@@ -0,0 +1,108 @@
+package interviews.graph.discovery;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * One way of discovering the alphabet of a sorted word list. The engines find the same
+ * edges; where the edges leave the order open they may place symbols differently.
+ */
+public interface AlphabetDiscoveryEngine {
+  // the original recursive range splitting over boxed characters
+  AlphabetDiscoveryEngine SEQUENTIAL = new AlphabetDiscoveryEngine() {
+    @Override
+    public DiscoveredAlphabet discover(List<String> words) {
+      return discover(words, DiscoveryListener.NONE);
+    }
+
+    @Override
+    public DiscoveredAlphabet discover(List<String> words, DiscoveryListener discoveryListener) {
+      RecursiveAlphabetDiscovery alphabetDiscovery = new RecursiveAlphabetDiscovery(words).setDiscoveryListener(discoveryListener);
+      return new DiscoveredAlphabet(alphabetDiscovery.getGraph(), alphabetDiscovery.getAlphabetAsString());
+    }
+
+    @Override
+    public String toString() {
+      return "SEQUENTIAL";
+    }
+  };
+
+  // one pass over the words into primitive symbol ids and bitset rows
+  AlphabetDiscoveryEngine PRIMITIVE = new AlphabetDiscoveryEngine() {
+    @Override
+    public DiscoveredAlphabet discover(List<String> words) {
+      return discover(words, DiscoveryListener.NONE);
+    }
+
+    @Override
+    public DiscoveredAlphabet discover(List<String> words, DiscoveryListener discoveryListener) {
+      AlphabetDiscovery alphabetDiscovery = new AlphabetDiscovery(words).setDiscoveryListener(discoveryListener);
+      return new DiscoveredAlphabet(alphabetDiscovery.getGraph(), alphabetDiscovery.getAlphabet());
+    }
+
+    @Override
+    public String toString() {
+      return "PRIMITIVE";
+    }
+  };
+
+  // the primitive engine with edges extracted by fork join on the common pool
+  AlphabetDiscoveryEngine PARALLEL = new AlphabetDiscoveryEngine() {
+    @Override
+    public DiscoveredAlphabet discover(List<String> words) {
+      return discover(words, DiscoveryListener.NONE);
+    }
+
+    @Override
+    public DiscoveredAlphabet discover(List<String> words, DiscoveryListener discoveryListener) {
+      AlphabetDiscovery alphabetDiscovery = new AlphabetDiscovery(words, ForkJoinPool.commonPool()).setDiscoveryListener(discoveryListener);
+      return new DiscoveredAlphabet(alphabetDiscovery.getGraph(), alphabetDiscovery.getAlphabet());
+    }
+
+    @Override
+    public String toString() {
+      return "PARALLEL";
+    }
+  };
+
+  // the primitive engine fed one word at a time, holding only the previous word
+  AlphabetDiscoveryEngine STREAMING = new AlphabetDiscoveryEngine() {
+    @Override
+    public DiscoveredAlphabet discover(List<String> words) {
+      StreamingAlphabetDiscovery alphabetDiscovery = new StreamingAlphabetDiscovery().acceptAll(words.iterator());
+      return new DiscoveredAlphabet(alphabetDiscovery.getGraph(), alphabetDiscovery.getAlphabet());
+    }
+
+    @Override
+    public String toString() {
+      return "STREAMING";
+    }
+  };
+
+  // the primitive engine over the words packed into one array, each pair compared by a
+  // single vectorized mismatch scan where the runtime has one
+  AlphabetDiscoveryEngine MISMATCH = new AlphabetDiscoveryEngine() {
+    @Override
+    public DiscoveredAlphabet discover(List<String> words) {
+      return discover(words, DiscoveryListener.NONE);
+    }
+
+    @Override
+    public DiscoveredAlphabet discover(List<String> words, DiscoveryListener discoveryListener) {
+      AlphabetDiscovery alphabetDiscovery = new AlphabetDiscovery(words instanceof PackedWords ? words : PackedWords.of(words)).setDiscoveryListener(discoveryListener);
+      return new DiscoveredAlphabet(alphabetDiscovery.getGraph(), alphabetDiscovery.getAlphabet());
+    }
+
+    @Override
+    public String toString() {
+      return "MISMATCH";
+    }
+  };
+
+  DiscoveredAlphabet discover(List<String> words);
+
+  // reports the phases and metrics of the run to the listener, where the engine measures them
+  default DiscoveredAlphabet discover(List<String> words, DiscoveryListener discoveryListener) {
+    return discover(words);
+  }
+}
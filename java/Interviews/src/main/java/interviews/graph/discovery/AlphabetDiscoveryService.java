@@ -0,0 +1,129 @@
+package interviews.graph.discovery;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Discovers the alphabets of many word lists on one shared executor. Word lists are submitted
+ * through batches; a batch bounds the characters it has in flight and blocks submitters while
+ * it is at its limit, and hands back results as futures or in completion order.
+ */
+public class AlphabetDiscoveryService implements AutoCloseable {
+  final ExecutorService executorService;
+  final boolean ownsExecutorService;
+
+  // virtual threads when the JDK has them, otherwise one platform thread per core
+  public AlphabetDiscoveryService() {
+    this(newDefaultExecutorService(), true);
+  }
+
+  public AlphabetDiscoveryService(ExecutorService executorService) {
+    this(executorService, false);
+  }
+
+  AlphabetDiscoveryService(ExecutorService executorService, boolean ownsExecutorService) {
+    this.executorService = executorService;
+    this.ownsExecutorService = ownsExecutorService;
+  }
+
+  static ExecutorService newDefaultExecutorService() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch(ReflectiveOperationException e) {
+      return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+  }
+
+  public Batch newBatch(int maxInFlightCharacters) {
+    return new Batch(maxInFlightCharacters);
+  }
+
+  // waits for the running discoveries; an interrupt stops the wait and stays set on the thread
+  @Override
+  public void close() {
+    if(this.ownsExecutorService) {
+      this.executorService.shutdown();
+      try {
+        this.executorService.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+      } catch(InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  // a batch is submitted to and taken from by one thread at a time
+  public class Batch {
+    final int maxInFlightCharacters;
+    final Semaphore inFlightCharacters;
+    final BlockingQueue<CompletableFuture<String>> completedFutures;
+    int submittedCount;
+    int takenCount;
+
+    Batch(int maxInFlightCharacters) {
+      if(maxInFlightCharacters <= 0) {
+        throw new IllegalArgumentException("maxInFlightCharacters must be positive: " + maxInFlightCharacters);
+      }
+
+      this.maxInFlightCharacters = maxInFlightCharacters;
+      this.inFlightCharacters = new Semaphore(maxInFlightCharacters);
+      this.completedFutures = new LinkedBlockingQueue<>();
+    }
+
+    // blocks while the batch is at its limit; a word list above the limit on its own runs alone
+    public CompletableFuture<String> submit(final List<String> words) throws InterruptedException {
+      long characterCount = 0;
+      for(String word : words) {
+        characterCount += word.length();
+      }
+      final int permits = (int) Math.max(1, Math.min(characterCount, this.maxInFlightCharacters));
+
+      this.inFlightCharacters.acquire(permits);
+      final CompletableFuture<String> future;
+      try {
+        future = CompletableFuture.supplyAsync(new Supplier<String>() {
+          @Override
+          public String get() {
+            return new AlphabetDiscovery(words).getAlphabet();
+          }
+        }, executorService);
+      } catch(RuntimeException e) {
+        this.inFlightCharacters.release(permits);
+        throw e;
+      }
+
+      this.submittedCount++;
+      future.whenComplete(new BiConsumer<String, Throwable>() {
+        @Override
+        public void accept(String alphabet, Throwable throwable) {
+          inFlightCharacters.release(permits);
+          completedFutures.add(future);
+        }
+      });
+
+      return future;
+    }
+
+    // the next future to complete, in completion order; null once every submitted one was taken
+    public CompletableFuture<String> take() throws InterruptedException {
+      if(this.takenCount == this.submittedCount) {
+        return null;
+      }
+
+      this.takenCount++;
+      return this.completedFutures.take();
+    }
+
+    public int getSubmittedCount() {
+      return this.submittedCount;
+    }
+  }
+
+}
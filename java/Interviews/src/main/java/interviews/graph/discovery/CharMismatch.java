@@ -0,0 +1,53 @@
+package interviews.graph.discovery;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+
+/**
+ * First differing position of two char array ranges. On Java 9 and later this is
+ * Arrays.mismatch, which the JIT compiles to a vectorized compare of many chars per
+ * instruction; it is looked up at run time so that the module still targets 1.8, and a
+ * constant method handle is inlined like a direct call. Older runtimes compare char by char.
+ */
+class CharMismatch {
+  // Arrays.mismatch(char[], int, int, char[], int, int), or null before Java 9
+  static final MethodHandle ARRAYS_MISMATCH = findArraysMismatch();
+
+  static MethodHandle findArraysMismatch() {
+    try {
+      return MethodHandles.publicLookup().findStatic(Arrays.class, "mismatch",
+          MethodType.methodType(int.class, char[].class, int.class, int.class, char[].class, int.class, int.class));
+    } catch(NoSuchMethodException | IllegalAccessException e) {
+      return null;
+    }
+  }
+
+  static boolean isVectorized() {
+    return ARRAYS_MISMATCH != null;
+  }
+
+  // the offset of the first difference in the two ranges of the given length, or the length when they are equal
+  static int mismatch(char[] characters, int start, char[] otherCharacters, int otherStart, int length) {
+    if(ARRAYS_MISMATCH != null) {
+      int mismatchIndex;
+      try {
+        mismatchIndex = (int) ARRAYS_MISMATCH.invokeExact(characters, start, start + length, otherCharacters, otherStart, otherStart + length);
+      } catch(RuntimeException | Error e) {
+        // out of range arguments fail as they do in the loop below
+        throw e;
+      } catch(Throwable e) {
+        throw new IllegalStateException("Arrays.mismatch failed", e);
+      }
+      return mismatchIndex < 0 ? length : mismatchIndex;
+    }
+
+    int characterIndex = 0;
+    while(characterIndex < length && characters[start + characterIndex] == otherCharacters[otherStart + characterIndex]) {
+      characterIndex++;
+    }
+    return characterIndex;
+  }
+
+}
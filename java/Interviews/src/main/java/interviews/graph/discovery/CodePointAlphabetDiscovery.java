@@ -0,0 +1,154 @@
+package interviews.graph.discovery;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Alphabet discovery over Unicode code points, for alphabets with supplementary characters
+ * or tens of thousands of symbols. Words are compared code point by code point, so a surrogate
+ * pair is one symbol. Symbols go through an open addressing table and distinct edges through
+ * an open addressing set, both sized by what is found; the graph is frozen into a CodePointGraph.
+ */
+public class CodePointAlphabetDiscovery implements Consumer<CharSequence> {
+  static final long NO_EDGE = -1;
+
+  final CodePointTable symbolTable;
+  final TieBreakPolicy tieBreakPolicy;
+  // edges packed as from << 32 | to
+  long[] edgeTable;
+  int edgeCount;
+  CharSequence previousWord;
+  long wordCount;
+  CodePointGraph graph;
+  int[] alphabet;
+
+  public CodePointAlphabetDiscovery() {
+    this(TieBreakPolicy.READY_ORDER);
+  }
+
+  public CodePointAlphabetDiscovery(TieBreakPolicy tieBreakPolicy) {
+    this.symbolTable = new CodePointTable();
+    this.tieBreakPolicy = tieBreakPolicy;
+    this.edgeTable = new long[64];
+    Arrays.fill(this.edgeTable, NO_EDGE);
+  }
+
+  // the word must not change until the next word has been accepted
+  @Override
+  public void accept(CharSequence word) {
+    int length = word.length();
+    for(int characterIndex = 0; characterIndex < length; ) {
+      int codePoint = Character.codePointAt(word, characterIndex);
+      this.symbolTable.add(codePoint);
+      characterIndex += Character.charCount(codePoint);
+    }
+
+    if(this.previousWord != null) {
+      CharSequence previousWord = this.previousWord;
+      int commonLength = Math.min(previousWord.length(), length);
+      int characterIndex = 0;
+      while(characterIndex < commonLength && previousWord.charAt(characterIndex) == word.charAt(characterIndex)) {
+        characterIndex++;
+      }
+
+      if(characterIndex < commonLength) {
+        // a shared high surrogate belongs to the differing code point
+        if(characterIndex > 0 && Character.isHighSurrogate(word.charAt(characterIndex - 1))) {
+          characterIndex--;
+        }
+
+        addEdge(
+            this.symbolTable.getSymbolId(Character.codePointAt(previousWord, characterIndex)),
+            this.symbolTable.getSymbolId(Character.codePointAt(word, characterIndex)));
+      }
+    }
+
+    this.previousWord = word;
+    this.wordCount++;
+    this.graph = null;
+    this.alphabet = null;
+  }
+
+  public CodePointAlphabetDiscovery acceptAll(Iterable<? extends CharSequence> words) {
+    for(CharSequence word : words) {
+      accept(word);
+    }
+
+    return this;
+  }
+
+  public long getWordCount() {
+    return this.wordCount;
+  }
+
+  public CodePointGraph getGraph() {
+    if(this.graph == null) {
+      long[] edges = new long[this.edgeCount];
+      int edgeIndex = 0;
+      for(long edge : this.edgeTable) {
+        if(edge != NO_EDGE) {
+          edges[edgeIndex++] = edge;
+        }
+      }
+
+      this.graph = CodePointGraph.build(Arrays.copyOf(this.symbolTable.codePoints, this.symbolTable.size), edges);
+    }
+
+    return this.graph;
+  }
+
+  public int[] getAlphabetCodePoints() {
+    if(this.alphabet == null) {
+      CodePointGraph graph = getGraph();
+      int[] order = TopologicalSort.sort(graph, this.tieBreakPolicy);
+      int[] remainingSymbols = TopologicalSort.remainingSymbols(graph, order);
+
+      // symbols on a cycle go last
+      this.alphabet = new int[graph.getSymbolCount()];
+      for(int orderIndex = 0; orderIndex < order.length; orderIndex++) {
+        this.alphabet[orderIndex] = graph.getCodePoint(order[orderIndex]);
+      }
+      for(int index = 0; index < remainingSymbols.length; index++) {
+        this.alphabet[order.length + index] = graph.getCodePoint(remainingSymbols[index]);
+      }
+    }
+
+    return this.alphabet;
+  }
+
+  public String getAlphabet() {
+    int[] alphabet = getAlphabetCodePoints();
+    return new String(alphabet, 0, alphabet.length);
+  }
+
+  void addEdge(int fromSymbolId, int toSymbolId) {
+    long edge = (long) fromSymbolId << 32 | toSymbolId;
+    int mask = this.edgeTable.length - 1;
+    int slot = CodePointTable.mix(fromSymbolId * 31 + toSymbolId) & mask;
+    for(; this.edgeTable[slot] != NO_EDGE; slot = (slot + 1) & mask) {
+      if(this.edgeTable[slot] == edge) {
+        return;
+      }
+    }
+    this.edgeTable[slot] = edge;
+    this.edgeCount++;
+
+    // keep the load factor at or below one half
+    if(this.edgeCount << 1 > this.edgeTable.length) {
+      long[] edgeTable = this.edgeTable;
+      this.edgeTable = new long[edgeTable.length << 1];
+      Arrays.fill(this.edgeTable, NO_EDGE);
+      mask = this.edgeTable.length - 1;
+      for(long tableEdge : edgeTable) {
+        if(tableEdge != NO_EDGE) {
+          slot = CodePointTable.mix((int) (tableEdge >>> 32) * 31 + (int) tableEdge) & mask;
+          while(this.edgeTable[slot] != NO_EDGE) {
+            slot = (slot + 1) & mask;
+          }
+          this.edgeTable[slot] = tableEdge;
+        }
+      }
+    }
+  }
+
+}
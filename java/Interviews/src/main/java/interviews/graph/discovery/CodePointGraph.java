@@ -0,0 +1,123 @@
+package interviews.graph.discovery;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable Directed Graph over code points, in compressed sparse row form. Symbols are looked
+ * up through a sorted code point array, so memory is proportional to the symbols and edges found.
+ */
+public class CodePointGraph implements SymbolGraph {
+  final int[] codePoints;
+  final int[] sortedCodePoints;
+  final int[] sortedSymbolIds;
+  // successors of symbol s are successors[successorOffsets[s]] up to successorOffsets[s + 1], ascending
+  final int[] successorOffsets;
+  final int[] successors;
+  final int[] inEdgeCounts;
+
+  CodePointGraph(int[] codePoints, int[] successorOffsets, int[] successors) {
+    this.codePoints = codePoints;
+    this.successorOffsets = successorOffsets;
+    this.successors = successors;
+
+    int symbolCount = codePoints.length;
+    long[] keyedSymbolIds = new long[symbolCount];
+    for(int symbolId = 0; symbolId < symbolCount; symbolId++) {
+      keyedSymbolIds[symbolId] = (long) codePoints[symbolId] << 32 | symbolId;
+    }
+    Arrays.sort(keyedSymbolIds);
+    this.sortedCodePoints = new int[symbolCount];
+    this.sortedSymbolIds = new int[symbolCount];
+    for(int index = 0; index < symbolCount; index++) {
+      this.sortedCodePoints[index] = (int) (keyedSymbolIds[index] >>> 32);
+      this.sortedSymbolIds[index] = (int) keyedSymbolIds[index];
+    }
+
+    this.inEdgeCounts = new int[symbolCount];
+    for(int successorId : successors) {
+      this.inEdgeCounts[successorId]++;
+    }
+  }
+
+  // edges packed as from << 32 | to, without duplicates
+  static CodePointGraph build(int[] codePoints, long[] edges) {
+    Arrays.sort(edges);
+
+    int[] successorOffsets = new int[codePoints.length + 1];
+    int[] successors = new int[edges.length];
+    for(int edgeIndex = 0; edgeIndex < edges.length; edgeIndex++) {
+      successorOffsets[(int) (edges[edgeIndex] >>> 32) + 1]++;
+      successors[edgeIndex] = (int) edges[edgeIndex];
+    }
+    for(int symbolId = 0; symbolId < codePoints.length; symbolId++) {
+      successorOffsets[symbolId + 1] += successorOffsets[symbolId];
+    }
+
+    return new CodePointGraph(codePoints, successorOffsets, successors);
+  }
+
+  @Override
+  public int getSymbolCount() {
+    return this.codePoints.length;
+  }
+
+  public int getEdgeCount() {
+    return this.successors.length;
+  }
+
+  // returns -1 when the code point is not a symbol
+  public int getSymbolId(int codePoint) {
+    int index = Arrays.binarySearch(this.sortedCodePoints, codePoint);
+    return index >= 0 ? this.sortedSymbolIds[index] : -1;
+  }
+
+  public int getCodePoint(int symbolId) {
+    return this.codePoints[symbolId];
+  }
+
+  @Override
+  public int getSymbol(int symbolId) {
+    return this.codePoints[symbolId];
+  }
+
+  @Override
+  public int getInEdgeCount(int symbolId) {
+    return this.inEdgeCounts[symbolId];
+  }
+
+  public int getSuccessorCount(int symbolId) {
+    return this.successorOffsets[symbolId + 1] - this.successorOffsets[symbolId];
+  }
+
+  public boolean hasEdge(int fromSymbolId, int toSymbolId) {
+    return Arrays.binarySearch(this.successors, this.successorOffsets[fromSymbolId], this.successorOffsets[fromSymbolId + 1], toSymbolId) >= 0;
+  }
+
+  @Override
+  public void forEachSuccessor(int symbolId, IntConsumer action) {
+    for(int index = this.successorOffsets[symbolId]; index < this.successorOffsets[symbolId + 1]; index++) {
+      action.accept(this.successors[index]);
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder stringBuilder = new StringBuilder();
+    for(int symbolId = 0; symbolId < this.codePoints.length; symbolId++) {
+      if(symbolId > 0) {
+        stringBuilder.append(';');
+      }
+
+      stringBuilder.append("C:").appendCodePoint(this.codePoints[symbolId]).append(",A:");
+      for(int index = this.successorOffsets[symbolId]; index < this.successorOffsets[symbolId + 1]; index++) {
+        if(index > this.successorOffsets[symbolId]) {
+          stringBuilder.append(',');
+        }
+        stringBuilder.appendCodePoint(this.codePoints[this.successors[index]]);
+      }
+    }
+
+    return stringBuilder.toString();
+  }
+}
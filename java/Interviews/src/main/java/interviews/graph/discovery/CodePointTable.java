@@ -0,0 +1,78 @@
+package interviews.graph.discovery;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing table from code point to dense symbol id, ids given in first seen order
+ */
+class CodePointTable {
+  // code point + 1 in each slot, so that the zero filled table is empty
+  int[] keys;
+  int[] symbolIds;
+  int[] codePoints;
+  int size;
+
+  CodePointTable() {
+    this.keys = new int[64];
+    this.symbolIds = new int[64];
+    this.codePoints = new int[32];
+  }
+
+  int getSymbolId(int codePoint) {
+    int mask = this.keys.length - 1;
+    for(int slot = mix(codePoint) & mask; this.keys[slot] != 0; slot = (slot + 1) & mask) {
+      if(this.keys[slot] == codePoint + 1) {
+        return this.symbolIds[slot];
+      }
+    }
+
+    return -1;
+  }
+
+  int add(int codePoint) {
+    int mask = this.keys.length - 1;
+    int slot = mix(codePoint) & mask;
+    for(; this.keys[slot] != 0; slot = (slot + 1) & mask) {
+      if(this.keys[slot] == codePoint + 1) {
+        return this.symbolIds[slot];
+      }
+    }
+
+    int symbolId = this.size++;
+    this.keys[slot] = codePoint + 1;
+    this.symbolIds[slot] = symbolId;
+    if(symbolId == this.codePoints.length) {
+      this.codePoints = Arrays.copyOf(this.codePoints, symbolId << 1);
+    }
+    this.codePoints[symbolId] = codePoint;
+
+    // keep the load factor at or below one half
+    if(this.size << 1 > this.keys.length) {
+      rehash(this.keys.length << 1);
+    }
+
+    return symbolId;
+  }
+
+  void rehash(int capacity) {
+    int[] keys = new int[capacity];
+    int[] symbolIds = new int[capacity];
+    int mask = capacity - 1;
+    for(int symbolId = 0; symbolId < this.size; symbolId++) {
+      int slot = mix(this.codePoints[symbolId]) & mask;
+      while(keys[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = this.codePoints[symbolId] + 1;
+      symbolIds[slot] = symbolId;
+    }
+
+    this.keys = keys;
+    this.symbolIds = symbolIds;
+  }
+
+  static int mix(int value) {
+    int hash = value * 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+}
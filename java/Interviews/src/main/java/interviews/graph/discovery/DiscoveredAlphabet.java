@@ -0,0 +1,27 @@
+package interviews.graph.discovery;
+
+/**
+ * Precedence graph and the alphabet ordered from it; the graph must not be modified once shared
+ */
+public class DiscoveredAlphabet {
+  final PrecedenceGraph graph;
+  final String alphabet;
+
+  public DiscoveredAlphabet(PrecedenceGraph graph, String alphabet) {
+    this.graph = graph;
+    this.alphabet = alphabet;
+  }
+
+  public PrecedenceGraph getGraph() {
+    return this.graph;
+  }
+
+  public String getAlphabet() {
+    return this.alphabet;
+  }
+
+  @Override
+  public String toString() {
+    return this.alphabet;
+  }
+}
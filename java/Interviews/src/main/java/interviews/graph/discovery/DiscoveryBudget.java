@@ -0,0 +1,61 @@
+package interviews.graph.discovery;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How long a bounded discovery may run: a wall clock time, a number of words, or both,
+ * whichever runs out first. The time is counted from the start of the discovery.
+ */
+public class DiscoveryBudget {
+  public static final DiscoveryBudget UNLIMITED = new DiscoveryBudget(Long.MAX_VALUE, Long.MAX_VALUE);
+
+  final long timeNanos;
+  final long wordLimit;
+
+  DiscoveryBudget(long timeNanos, long wordLimit) {
+    if(timeNanos < 0 || wordLimit < 0) {
+      throw new IllegalArgumentException("Negative budget");
+    }
+
+    this.timeNanos = timeNanos;
+    this.wordLimit = wordLimit;
+  }
+
+  public static DiscoveryBudget ofTime(long time, TimeUnit timeUnit) {
+    return new DiscoveryBudget(timeUnit.toNanos(time), Long.MAX_VALUE);
+  }
+
+  public static DiscoveryBudget ofWords(long wordLimit) {
+    return new DiscoveryBudget(Long.MAX_VALUE, wordLimit);
+  }
+
+  public DiscoveryBudget withTime(long time, TimeUnit timeUnit) {
+    return new DiscoveryBudget(timeUnit.toNanos(time), this.wordLimit);
+  }
+
+  public DiscoveryBudget withWords(long wordLimit) {
+    return new DiscoveryBudget(this.timeNanos, wordLimit);
+  }
+
+  public long getTimeNanos() {
+    return this.timeNanos;
+  }
+
+  public long getWordLimit() {
+    return this.wordLimit;
+  }
+
+  boolean isTimeExhausted(long startNanos) {
+    return this.timeNanos != Long.MAX_VALUE && System.nanoTime() - startNanos >= this.timeNanos;
+  }
+
+  @Override
+  public String toString() {
+    String time = this.timeNanos == Long.MAX_VALUE ? null : this.timeNanos + " ns";
+    String words = this.wordLimit == Long.MAX_VALUE ? null : this.wordLimit + " words";
+    if(time == null) {
+      return words == null ? "unlimited" : words;
+    }
+    return words == null ? time : time + ", " + words;
+  }
+}
@@ -0,0 +1,15 @@
+package interviews.graph.discovery;
+
+/**
+ * Notified as a discovery run completes each phase, and with its metrics at the end
+ */
+public interface DiscoveryListener {
+  DiscoveryListener NONE = new DiscoveryListener() {
+  };
+
+  default void phaseCompleted(DiscoveryMetrics.Phase phase, long elapsedNanos) {
+  }
+
+  default void discoveryCompleted(DiscoveryMetrics metrics) {
+  }
+}
@@ -0,0 +1,109 @@
+package interviews.graph.discovery;
+
+/**
+ * Counters and phase timings of one discovery run
+ */
+public class DiscoveryMetrics {
+  public enum Phase {
+    // comparing words and building the graph
+    EXTRACT_EDGES,
+    // in edge counts for the ordering, when built separately
+    BUILD_COMPARATOR,
+    ORDER_SYMBOLS,
+    // the scan for characters that are not in the graph
+    COLLECT_UNORDERED
+  }
+
+  final long[] phaseNanos = new long[Phase.values().length];
+  long wordCount;
+  long charactersCompared;
+  // adjacent pairs that produced an edge; more than the edges found when pairs repeat an edge
+  long edgePairCount;
+  int maxRecursionDepth;
+  int peakSymbolCount;
+  int peakEdgeCount;
+
+  public void recordPhase(Phase phase, long elapsedNanos) {
+    this.phaseNanos[phase.ordinal()] += elapsedNanos;
+  }
+
+  public void recordWords(long wordCount) {
+    this.wordCount += wordCount;
+  }
+
+  public void recordCharactersCompared(long charactersCompared) {
+    this.charactersCompared += charactersCompared;
+  }
+
+  public void recordEdgePairs(long edgePairCount) {
+    this.edgePairCount += edgePairCount;
+  }
+
+  public void recordRecursionDepth(int recursionDepth) {
+    this.maxRecursionDepth = Math.max(this.maxRecursionDepth, recursionDepth);
+  }
+
+  public void recordGraphSize(int symbolCount, int edgeCount) {
+    this.peakSymbolCount = Math.max(this.peakSymbolCount, symbolCount);
+    this.peakEdgeCount = Math.max(this.peakEdgeCount, edgeCount);
+  }
+
+  public long getPhaseNanos(Phase phase) {
+    return this.phaseNanos[phase.ordinal()];
+  }
+
+  public long getTotalNanos() {
+    long totalNanos = 0;
+    for(long nanos : this.phaseNanos) {
+      totalNanos += nanos;
+    }
+    return totalNanos;
+  }
+
+  public long getWordCount() {
+    return this.wordCount;
+  }
+
+  public long getCharactersCompared() {
+    return this.charactersCompared;
+  }
+
+  public long getEdgesFound() {
+    return this.peakEdgeCount;
+  }
+
+  public long getDuplicateEdges() {
+    return this.edgePairCount - this.peakEdgeCount;
+  }
+
+  // zero for the non recursive engines
+  public int getMaxRecursionDepth() {
+    return this.maxRecursionDepth;
+  }
+
+  public int getPeakSymbolCount() {
+    return this.peakSymbolCount;
+  }
+
+  public int getPeakEdgeCount() {
+    return this.peakEdgeCount;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder stringBuilder = new StringBuilder();
+    for(Phase phase : Phase.values()) {
+      stringBuilder.append(phase).append(':').append(this.phaseNanos[phase.ordinal()]).append("ns,");
+    }
+
+    return stringBuilder
+        .append("words:").append(this.wordCount)
+        .append(",charactersCompared:").append(this.charactersCompared)
+        .append(",edgesFound:").append(getEdgesFound())
+        .append(",duplicateEdges:").append(getDuplicateEdges())
+        .append(",maxRecursionDepth:").append(this.maxRecursionDepth)
+        .append(",peakSymbols:").append(this.peakSymbolCount)
+        .append(",peakEdges:").append(this.peakEdgeCount)
+        .toString();
+  }
+}
@@ -0,0 +1,192 @@
+package interviews.graph.discovery;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single left to right pass over sorted words. Each adjacent pair of words adds at most
+ * one edge, between the characters at their first differing position; this is the same
+ * edge the recursive processWords finds for the pair, without a stack frame per shared
+ * prefix character. Only the previous word is held.
+ * In validation mode each new edge is checked against the graph so far, and the extractor
+ * throws InconsistentDictionaryException at the first contradicting pair; it then also keeps
+ * the pair that established each edge, to report the cycle.
+ */
+public class EdgeExtractor {
+  final PrecedenceGraph graph;
+  CharSequence previousWord;
+  long wordCount;
+  long charactersCompared;
+  long edgePairCount;
+  boolean validating;
+  // edges packed as from << 32 | to, when validating
+  Map<Long, InconsistentDictionaryException.WordPair> edgeWordPairs;
+
+  public EdgeExtractor(PrecedenceGraph graph) {
+    this.graph = graph;
+  }
+
+  // set before the first word
+  public EdgeExtractor setValidating(boolean validating) {
+    this.validating = validating;
+    this.edgeWordPairs = validating ? new HashMap<Long, InconsistentDictionaryException.WordPair>() : null;
+    return this;
+  }
+
+  public boolean isValidating() {
+    return this.validating;
+  }
+
+  public PrecedenceGraph getGraph() {
+    return this.graph;
+  }
+
+  public long getWordCount() {
+    return this.wordCount;
+  }
+
+  public long getCharactersCompared() {
+    return this.charactersCompared;
+  }
+
+  // adjacent pairs that produced an edge, new or not
+  public long getEdgePairCount() {
+    return this.edgePairCount;
+  }
+
+  // adds the other extractor's graph and counters; its words follow this one's
+  public void merge(EdgeExtractor other) {
+    this.graph.merge(other.graph);
+    this.wordCount += other.wordCount;
+    this.charactersCompared += other.charactersCompared;
+    this.edgePairCount += other.edgePairCount;
+    this.previousWord = other.previousWord;
+  }
+
+  // the word must not change until the next word has been accepted
+  public void accept(CharSequence word) {
+    int length = word.length();
+    for(int characterIndex = 0; characterIndex < length; characterIndex++) {
+      this.graph.addSymbol(word.charAt(characterIndex));
+    }
+
+    if(this.previousWord != null) {
+      CharSequence previousWord = this.previousWord;
+      int commonLength = Math.min(previousWord.length(), length);
+      int characterIndex = 0;
+      while(characterIndex < commonLength && previousWord.charAt(characterIndex) == word.charAt(characterIndex)) {
+        characterIndex++;
+      }
+
+      if(characterIndex < commonLength) {
+        this.charactersCompared += characterIndex + 1;
+        this.edgePairCount++;
+        int fromSymbolId = this.graph.getSymbolId(previousWord.charAt(characterIndex));
+        int toSymbolId = this.graph.getSymbolId(word.charAt(characterIndex));
+        if(this.validating) {
+          validateEdge(fromSymbolId, toSymbolId, previousWord, word);
+        } else {
+          this.graph.addEdge(fromSymbolId, toSymbolId);
+        }
+      } else {
+        this.charactersCompared += characterIndex;
+        if(this.validating && previousWord.length() > length) {
+          throw new InconsistentDictionaryException(
+              new InconsistentDictionaryException.WordPair(previousWord.toString(), word.toString(), this.wordCount));
+        }
+      }
+    }
+
+    this.previousWord = word;
+    this.wordCount++;
+  }
+
+  // adds the edge unless it closes a cycle, in which case the shortest such cycle is reported
+  void validateEdge(int fromSymbolId, int toSymbolId, CharSequence previousWord, CharSequence word) {
+    if(this.graph.hasEdge(fromSymbolId, toSymbolId)) {
+      return;
+    }
+
+    InconsistentDictionaryException.WordPair wordPair =
+        new InconsistentDictionaryException.WordPair(previousWord.toString(), word.toString(), this.wordCount);
+    // nothing reaches a symbol without predecessors
+    int[] path = this.graph.getInEdgeCount(fromSymbolId) == 0 ? null : this.graph.findPath(toSymbolId, fromSymbolId);
+    if(path != null) {
+      StringBuilder cycle = new StringBuilder().append(this.graph.getCharacter(fromSymbolId));
+      List<InconsistentDictionaryException.WordPair> cycleWordPairs = new ArrayList<>();
+      cycleWordPairs.add(wordPair);
+      for(int pathIndex = 0; pathIndex < path.length; pathIndex++) {
+        cycle.append(this.graph.getCharacter(path[pathIndex]));
+        if(pathIndex > 0) {
+          cycleWordPairs.add(this.edgeWordPairs.get((long) path[pathIndex - 1] << 32 | path[pathIndex]));
+        }
+      }
+
+      throw new InconsistentDictionaryException(wordPair, cycle.toString(), cycleWordPairs);
+    }
+
+    this.graph.addEdge(fromSymbolId, toSymbolId);
+    this.edgeWordPairs.put((long) fromSymbolId << 32 | toSymbolId, wordPair);
+  }
+
+  public void acceptAll(Iterable<? extends CharSequence> words) {
+    if(words instanceof PackedWords) {
+      PackedWords packedWords = (PackedWords) words;
+      acceptAll(packedWords, 0, packedWords.size());
+      return;
+    }
+
+    for(CharSequence word : words) {
+      accept(word);
+    }
+  }
+
+  // the same edges as accepting each word, with one mismatch scan per pair in the packed array
+  public void acceptAll(PackedWords words, int wordStartIndex, int wordEndIndex) {
+    if(wordStartIndex >= wordEndIndex) {
+      return;
+    }
+    // the pair with a word from before these is compared as usual
+    accept(words.get(wordStartIndex));
+
+    char[] characters = words.characters;
+    int[] offsets = words.offsets;
+    for(int wordIndex = wordStartIndex + 1; wordIndex < wordEndIndex; wordIndex++) {
+      int previousStart = offsets[wordIndex - 1];
+      int previousLength = offsets[wordIndex] - previousStart;
+      int start = offsets[wordIndex];
+      int length = offsets[wordIndex + 1] - start;
+      for(int characterIndex = start; characterIndex < start + length; characterIndex++) {
+        this.graph.addSymbol(characters[characterIndex]);
+      }
+
+      int commonLength = Math.min(previousLength, length);
+      int characterIndex = CharMismatch.mismatch(characters, previousStart, characters, start, commonLength);
+
+      if(characterIndex < commonLength) {
+        this.charactersCompared += characterIndex + 1;
+        this.edgePairCount++;
+        int fromSymbolId = this.graph.getSymbolId(characters[previousStart + characterIndex]);
+        int toSymbolId = this.graph.getSymbolId(characters[start + characterIndex]);
+        if(!this.validating) {
+          this.graph.addEdge(fromSymbolId, toSymbolId);
+        } else if(!this.graph.hasEdge(fromSymbolId, toSymbolId)) {
+          validateEdge(fromSymbolId, toSymbolId, words.get(wordIndex - 1), words.get(wordIndex));
+        }
+      } else {
+        this.charactersCompared += characterIndex;
+        if(this.validating && previousLength > length) {
+          throw new InconsistentDictionaryException(
+              new InconsistentDictionaryException.WordPair(words.get(wordIndex - 1), words.get(wordIndex), this.wordCount));
+        }
+      }
+
+      this.wordCount++;
+    }
+
+    this.previousWord = words.get(wordEndIndex - 1);
+  }
+
+}
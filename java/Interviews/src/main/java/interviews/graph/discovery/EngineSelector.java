@@ -0,0 +1,50 @@
+package interviews.graph.discovery;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Picks an alphabet discovery engine from the shape of the input. Parallel extraction pays off
+ * once there are several fork join leaves to spread over the cores, and while merging two
+ * leaves' graphs, a bitset row per symbol, costs less than extracting a leaf's words; large
+ * alphabets are extracted sequentially. Everything else runs on the primitive engine; the
+ * recursive engine is never faster, and the streaming one only saves memory for sources that
+ * are not already lists.
+ */
+public class EngineSelector {
+  // leaves before the fork join overhead is repaid
+  static final int MIN_LEAF_COUNT = 4;
+  // characters looked at to estimate the alphabet size
+  static final int SAMPLE_CHARACTERS = 1 << 16;
+
+  public static AlphabetDiscoveryEngine select(int wordCount, int alphabetSize, int coreCount) {
+    if(coreCount < 2) {
+      return AlphabetDiscoveryEngine.PRIMITIVE;
+    }
+
+    // the 64 bit words or'ed per merge, against the words compared per leaf
+    long mergeCost = (long) alphabetSize * alphabetSize / 64;
+    if(wordCount >= (long) AlphabetDiscovery.PARALLEL_THRESHOLD * MIN_LEAF_COUNT
+        && mergeCost <= AlphabetDiscovery.PARALLEL_THRESHOLD) {
+      return AlphabetDiscoveryEngine.PARALLEL;
+    }
+
+    return AlphabetDiscoveryEngine.PRIMITIVE;
+  }
+
+  // estimates the alphabet size from the distinct characters at the start of the words
+  public static AlphabetDiscoveryEngine select(List<String> words) {
+    BitSet characters = new BitSet();
+    int characterCount = 0;
+    for(int wordIndex = 0; wordIndex < words.size() && characterCount < SAMPLE_CHARACTERS; wordIndex++) {
+      String word = words.get(wordIndex);
+      for(int characterIndex = 0; characterIndex < word.length() && characterCount < SAMPLE_CHARACTERS; characterIndex++) {
+        characters.set(word.charAt(characterIndex));
+        characterCount++;
+      }
+    }
+
+    return select(words.size(), characters.cardinality(), Runtime.getRuntime().availableProcessors());
+  }
+
+}
@@ -0,0 +1,181 @@
+package interviews.graph.discovery;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of a discovered alphabet, to start from instead of the words. Big endian:
+ *
+ *   int magic, short version, short flags, int symbolCount, int edgeCount, int alphabetLength
+ *   char[symbolCount] characters, in symbol id order
+ *   char[alphabetLength] alphabet
+ *   int[symbolCount + 1] successor offsets
+ *   unsigned short[edgeCount] successor ids, each symbol's ascending
+ *   int CRC32 of everything before it
+ *
+ * Snapshots are written to a temporary file and moved into place. Loading maps the file read
+ * only, checks it in place and copies it into a PrecedenceGraph on the heap, which is what
+ * discovery and sorting work on; the mapping saves a read buffer, not the graph's memory. A
+ * snapshot that fails its checks is rejected with an IOException.
+ */
+public class GraphSnapshot {
+  // "ALPH"
+  static final int MAGIC = 0x414C5048;
+  static final short VERSION = 1;
+  static final int HEADER_SIZE = 20;
+
+  // the alphabet must order the graph's symbols, each once; the alphabet of a lone word,
+  // which the graph does not hold, cannot be saved
+  public static void save(DiscoveredAlphabet discoveredAlphabet, Path path) throws IOException {
+    PrecedenceGraph graph = discoveredAlphabet.getGraph();
+    String alphabet = discoveredAlphabet.getAlphabet();
+    String alphabetError = findAlphabetError(graph, alphabet);
+    if(alphabetError != null) {
+      throw new IllegalArgumentException("The alphabet does not order the graph's symbols: " + alphabetError);
+    }
+    int symbolCount = graph.getSymbolCount();
+    int edgeCount = graph.getEdgeCount();
+
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + 2 * symbolCount + 2 * alphabet.length()
+        + 4 * (symbolCount + 1) + 2 * edgeCount + 4);
+    buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0)
+        .putInt(symbolCount).putInt(edgeCount).putInt(alphabet.length());
+    for(int symbolId = 0; symbolId < symbolCount; symbolId++) {
+      buffer.putChar(graph.getCharacter(symbolId));
+    }
+    for(int characterIndex = 0; characterIndex < alphabet.length(); characterIndex++) {
+      buffer.putChar(alphabet.charAt(characterIndex));
+    }
+
+    int successorOffset = 0;
+    buffer.putInt(successorOffset);
+    for(int symbolId = 0; symbolId < symbolCount; symbolId++) {
+      successorOffset += graph.successors[symbolId].cardinality();
+      buffer.putInt(successorOffset);
+    }
+    for(int symbolId = 0; symbolId < symbolCount; symbolId++) {
+      for(int successorId = graph.nextSuccessor(symbolId, 0); successorId >= 0; successorId = graph.nextSuccessor(symbolId, successorId + 1)) {
+        buffer.putShort((short) successorId);
+      }
+    }
+
+    CRC32 crc = new CRC32();
+    crc.update(buffer.array(), 0, buffer.position());
+    buffer.putInt((int) crc.getValue());
+    buffer.flip();
+
+    // readers never see a partly written snapshot
+    Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+    try(FileChannel channel = FileChannel.open(temporaryPath,
+        StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while(buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(false);
+    }
+    Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  public static DiscoveredAlphabet load(Path path) throws IOException {
+    ByteBuffer buffer;
+    try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if(channel.size() < HEADER_SIZE + 4 || channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Not an alphabet snapshot: " + path);
+      }
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    if(buffer.getInt() != MAGIC) {
+      throw new IOException("Not an alphabet snapshot: " + path);
+    }
+    short version = buffer.getShort();
+    if(version != VERSION) {
+      throw new IOException("Unsupported alphabet snapshot version " + version + ": " + path);
+    }
+    buffer.getShort();
+
+    int symbolCount = buffer.getInt();
+    int edgeCount = buffer.getInt();
+    int alphabetLength = buffer.getInt();
+    long expectedSize = HEADER_SIZE + 2L * symbolCount + 2L * alphabetLength + 4L * (symbolCount + 1) + 2L * edgeCount + 4;
+    if(symbolCount < 0 || edgeCount < 0 || alphabetLength < 0 || expectedSize != buffer.capacity()) {
+      throw new IOException("Truncated alphabet snapshot: " + path);
+    }
+
+    ByteBuffer checkedBuffer = buffer.duplicate();
+    checkedBuffer.position(0).limit(buffer.capacity() - 4);
+    CRC32 crc = new CRC32();
+    crc.update(checkedBuffer);
+    if((int) crc.getValue() != buffer.getInt(buffer.capacity() - 4)) {
+      throw new IOException("Alphabet snapshot checksum mismatch: " + path);
+    }
+
+    PrecedenceGraph graph = new PrecedenceGraph();
+    for(int symbolId = 0; symbolId < symbolCount; symbolId++) {
+      if(graph.addSymbol(buffer.getChar()) != symbolId) {
+        throw new IOException("Corrupt alphabet snapshot symbols: " + path);
+      }
+    }
+    char[] alphabet = new char[alphabetLength];
+    buffer.asCharBuffer().get(alphabet);
+    buffer.position(buffer.position() + 2 * alphabetLength);
+    String alphabetError = findAlphabetError(graph, new String(alphabet));
+    if(alphabetError != null) {
+      throw new IOException("Corrupt alphabet snapshot alphabet, " + alphabetError + ": " + path);
+    }
+
+    int successorsPosition = buffer.position() + 4 * (symbolCount + 1);
+    int successorOffset = buffer.getInt();
+    if(successorOffset != 0) {
+      throw new IOException("Corrupt alphabet snapshot offsets: " + path);
+    }
+    for(int symbolId = 0; symbolId < symbolCount; symbolId++) {
+      int nextSuccessorOffset = buffer.getInt();
+      if(nextSuccessorOffset < successorOffset || nextSuccessorOffset > edgeCount) {
+        throw new IOException("Corrupt alphabet snapshot offsets: " + path);
+      }
+      int previousSuccessorId = -1;
+      for(; successorOffset < nextSuccessorOffset; successorOffset++) {
+        int successorId = buffer.getShort(successorsPosition + 2 * successorOffset) & 0xFFFF;
+        if(successorId >= symbolCount || successorId <= previousSuccessorId || successorId == symbolId) {
+          throw new IOException("Corrupt alphabet snapshot successor: " + path);
+        }
+        graph.addEdge(symbolId, successorId);
+        previousSuccessorId = successorId;
+      }
+    }
+    // every stored successor belongs to a symbol
+    if(successorOffset != edgeCount) {
+      throw new IOException("Corrupt alphabet snapshot offsets: " + path);
+    }
+
+    return new DiscoveredAlphabet(graph, new String(alphabet));
+  }
+
+  // null when the alphabet holds every symbol of the graph exactly once
+  static String findAlphabetError(PrecedenceGraph graph, String alphabet) {
+    if(alphabet.length() != graph.getSymbolCount()) {
+      return alphabet.length() + " characters for " + graph.getSymbolCount() + " symbols";
+    }
+    BitSet seenSymbols = new BitSet(graph.getSymbolCount());
+    for(int characterIndex = 0; characterIndex < alphabet.length(); characterIndex++) {
+      int symbolId = graph.getSymbolId(alphabet.charAt(characterIndex));
+      if(symbolId < 0) {
+        return "character " + characterIndex + " is not a symbol";
+      }
+      if(seenSymbols.get(symbolId)) {
+        return "character " + characterIndex + " repeats a symbol";
+      }
+      seenSymbols.set(symbolId);
+    }
+    return null;
+  }
+
+}
@@ -0,0 +1,96 @@
+package interviews.graph.discovery;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown in validation mode when a pair of adjacent words contradicts the order established
+ * by the words before it. Carries the pair, and for a cycle the symbols on it along with the
+ * word pair that established each of its edges.
+ */
+public class InconsistentDictionaryException extends IllegalArgumentException {
+  private static final long serialVersionUID = 1L;
+
+  public enum Reason {
+    // the pair's first difference closes a cycle
+    CYCLE,
+    // a word follows a longer word it is a prefix of
+    PREFIX_AFTER_EXTENSION
+  }
+
+  final Reason reason;
+  final WordPair wordPair;
+  final String cycle;
+  final List<WordPair> cycleWordPairs;
+
+  public InconsistentDictionaryException(WordPair wordPair) {
+    super("\"" + wordPair.word + "\" cannot follow its extension \"" + wordPair.previousWord
+        + "\" at word " + wordPair.wordIndex);
+    this.reason = Reason.PREFIX_AFTER_EXTENSION;
+    this.wordPair = wordPair;
+    this.cycle = "";
+    this.cycleWordPairs = Collections.emptyList();
+  }
+
+  public InconsistentDictionaryException(WordPair wordPair, String cycle, List<WordPair> cycleWordPairs) {
+    super("\"" + wordPair.previousWord + "\" before \"" + wordPair.word + "\" at word " + wordPair.wordIndex
+        + " closes the cycle " + cycle + ", established by " + cycleWordPairs);
+    this.reason = Reason.CYCLE;
+    this.wordPair = wordPair;
+    this.cycle = cycle;
+    this.cycleWordPairs = Collections.unmodifiableList(cycleWordPairs);
+  }
+
+  public Reason getReason() {
+    return this.reason;
+  }
+
+  // the first adjacent pair that contradicts the words before it
+  public WordPair getWordPair() {
+    return this.wordPair;
+  }
+
+  // the characters on the cycle, starting and ending with the conflicting pair's first difference
+  public String getCycle() {
+    return this.cycle;
+  }
+
+  // one pair per edge of the cycle, in cycle order; the conflicting pair comes first
+  public List<WordPair> getCycleWordPairs() {
+    return this.cycleWordPairs;
+  }
+
+  public static final class WordPair implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    final String previousWord;
+    final String word;
+    final long wordIndex;
+
+    public WordPair(String previousWord, String word, long wordIndex) {
+      this.previousWord = previousWord;
+      this.word = word;
+      this.wordIndex = wordIndex;
+    }
+
+    public String getPreviousWord() {
+      return this.previousWord;
+    }
+
+    public String getWord() {
+      return this.word;
+    }
+
+    // the index of the second word; the first is just before it
+    public long getWordIndex() {
+      return this.wordIndex;
+    }
+
+    @Override
+    public String toString() {
+      return this.wordIndex + ":\"" + this.previousWord + "\",\"" + this.word + "\"";
+    }
+  }
+
+}
@@ -0,0 +1,319 @@
+package interviews.graph.discovery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Alphabet discovery that keeps its alphabet up to date as words are inserted. An inserted
+ * word only adds the edges to its two neighbours, and the topological order is repaired with
+ * the Pearce-Kelly algorithm, which reorders just the symbols between the two ends of an edge
+ * that points backwards in the current order.
+ */
+public class IncrementalAlphabetDiscovery {
+  final List<String> words;
+  final PrecedenceGraph graph;
+  BitSet[] predecessors;
+  // position of every symbol in the order, and the symbol at every position
+  int[] orderIndexBySymbol;
+  int[] symbolByOrderIndex;
+  String alphabet;
+  // the moves of the insertion in progress, as symbol << 32 | previous position, to undo them
+  long[] moves;
+  int moveCount;
+
+  // reused by the searches
+  final BitSet visitedSymbols;
+  int[] symbolStack;
+
+  public IncrementalAlphabetDiscovery() {
+    this.words = new ArrayList<>();
+    this.graph = new PrecedenceGraph();
+    this.predecessors = new BitSet[PrecedenceGraph.INITIAL_CAPACITY];
+    this.orderIndexBySymbol = new int[PrecedenceGraph.INITIAL_CAPACITY];
+    this.symbolByOrderIndex = new int[PrecedenceGraph.INITIAL_CAPACITY];
+    this.visitedSymbols = new BitSet();
+    this.symbolStack = new int[PrecedenceGraph.INITIAL_CAPACITY];
+    this.moves = new long[PrecedenceGraph.INITIAL_CAPACITY];
+  }
+
+  /**
+   * Cost of one insertion
+   */
+  public static final class UpdateCost {
+    int symbolsAdded;
+    int edgesAdded;
+    int symbolsVisited;
+    int symbolsReordered;
+
+    public int getSymbolsAdded() {
+      return this.symbolsAdded;
+    }
+
+    public int getEdgesAdded() {
+      return this.edgesAdded;
+    }
+
+    // symbols reached by the Pearce-Kelly searches
+    public int getSymbolsVisited() {
+      return this.symbolsVisited;
+    }
+
+    public int getSymbolsReordered() {
+      return this.symbolsReordered;
+    }
+
+    @Override
+    public String toString() {
+      return "symbolsAdded:" + this.symbolsAdded + ",edgesAdded:" + this.edgesAdded
+          + ",symbolsVisited:" + this.symbolsVisited + ",symbolsReordered:" + this.symbolsReordered;
+    }
+  }
+
+  public List<String> getWords() {
+    return this.words;
+  }
+
+  public PrecedenceGraph getGraph() {
+    return this.graph;
+  }
+
+  public UpdateCost append(String word) {
+    return insert(this.words.size(), word);
+  }
+
+  // inserts the word at its sorted position; throws when the word contradicts the order so far,
+  // leaving the symbols, edges and order as they were
+  public UpdateCost insert(int wordIndex, String word) {
+    if(wordIndex < 0 || wordIndex > this.words.size()) {
+      throw new IndexOutOfBoundsException("Word index " + wordIndex + " of " + this.words.size());
+    }
+
+    UpdateCost updateCost = new UpdateCost();
+    int previousSymbolCount = this.graph.getSymbolCount();
+    this.moveCount = 0;
+
+    for(int characterIndex = 0; characterIndex < word.length(); characterIndex++) {
+      int symbolCount = this.graph.getSymbolCount();
+      int symbolId = this.graph.addSymbol(word.charAt(characterIndex));
+      if(symbolId == symbolCount) {
+        addToOrder(symbolId);
+        updateCost.symbolsAdded++;
+      }
+    }
+
+    long firstEdge = -1;
+    try {
+      if(wordIndex > 0) {
+        firstEdge = addEdge(this.words.get(wordIndex - 1), word, updateCost);
+      }
+      if(wordIndex < this.words.size()) {
+        addEdge(word, this.words.get(wordIndex), updateCost);
+      }
+    } catch(IllegalArgumentException e) {
+      if(firstEdge >= 0) {
+        removeEdge((int) (firstEdge >>> 32), (int) firstEdge);
+      }
+      undoMoves();
+      removeSymbolsFrom(previousSymbolCount);
+      throw e;
+    }
+
+    this.words.add(wordIndex, word);
+    if(updateCost.symbolsAdded > 0 || updateCost.symbolsReordered > 0) {
+      this.alphabet = null;
+    }
+
+    return updateCost;
+  }
+
+  public String getAlphabet() {
+    if(this.alphabet == null) {
+      StringBuilder alphabet = new StringBuilder();
+      for(int orderIndex = 0; orderIndex < this.graph.getSymbolCount(); orderIndex++) {
+        alphabet.append(this.graph.getCharacter(this.symbolByOrderIndex[orderIndex]));
+      }
+      this.alphabet = alphabet.toString();
+    }
+
+    return this.alphabet;
+  }
+
+  void addToOrder(int symbolId) {
+    if(symbolId == this.orderIndexBySymbol.length) {
+      int capacity = symbolId << 1;
+      this.predecessors = Arrays.copyOf(this.predecessors, capacity);
+      this.orderIndexBySymbol = Arrays.copyOf(this.orderIndexBySymbol, capacity);
+      this.symbolByOrderIndex = Arrays.copyOf(this.symbolByOrderIndex, capacity);
+      this.symbolStack = Arrays.copyOf(this.symbolStack, capacity);
+    }
+
+    this.predecessors[symbolId] = new BitSet();
+    this.orderIndexBySymbol[symbolId] = symbolId;
+    this.symbolByOrderIndex[symbolId] = symbolId;
+  }
+
+  // puts every symbol the insertion moved back where it was, the last move first
+  void undoMoves() {
+    while(this.moveCount > 0) {
+      long move = this.moves[--this.moveCount];
+      int symbolId = (int) (move >>> 32);
+      int orderIndex = (int) move;
+      this.orderIndexBySymbol[symbolId] = orderIndex;
+      this.symbolByOrderIndex[orderIndex] = symbolId;
+    }
+  }
+
+  // drops the symbols of a refused word, which have no edges and are back at the end of the order by then
+  void removeSymbolsFrom(int symbolCount) {
+    for(int symbolId = symbolCount; symbolId < this.graph.getSymbolCount(); symbolId++) {
+      this.predecessors[symbolId] = null;
+    }
+    this.graph.removeSymbolsFrom(symbolCount);
+  }
+
+  // adds the edge for an adjacent pair; returns it packed as from << 32 | to when new, else -1
+  long addEdge(String previousWord, String word, UpdateCost updateCost) {
+    int commonLength = Math.min(previousWord.length(), word.length());
+    int characterIndex = 0;
+    while(characterIndex < commonLength && previousWord.charAt(characterIndex) == word.charAt(characterIndex)) {
+      characterIndex++;
+    }
+
+    if(characterIndex == commonLength) {
+      if(previousWord.length() > word.length()) {
+        throw new IllegalArgumentException("\"" + word + "\" cannot follow its extension \"" + previousWord + "\"");
+      }
+      return -1;
+    }
+
+    int fromSymbolId = this.graph.getSymbolId(previousWord.charAt(characterIndex));
+    int toSymbolId = this.graph.getSymbolId(word.charAt(characterIndex));
+    if(this.graph.hasEdge(fromSymbolId, toSymbolId)) {
+      return -1;
+    }
+
+    int lowerBound = this.orderIndexBySymbol[toSymbolId];
+    int upperBound = this.orderIndexBySymbol[fromSymbolId];
+    if(lowerBound < upperBound) {
+      reorder(fromSymbolId, toSymbolId, lowerBound, upperBound, updateCost);
+    }
+
+    this.graph.addEdge(fromSymbolId, toSymbolId);
+    this.predecessors[toSymbolId].set(fromSymbolId);
+    updateCost.edgesAdded++;
+
+    return (long) fromSymbolId << 32 | toSymbolId;
+  }
+
+  void removeEdge(int fromSymbolId, int toSymbolId) {
+    this.graph.removeEdge(fromSymbolId, toSymbolId);
+    this.predecessors[toSymbolId].clear(fromSymbolId);
+  }
+
+  // Pearce-Kelly: move the symbols reachable from toSymbolId ahead of those reaching fromSymbolId
+  void reorder(int fromSymbolId, int toSymbolId, int lowerBound, int upperBound, UpdateCost updateCost) {
+    this.visitedSymbols.clear();
+
+    // forward from the edge's target, within the affected region
+    int[] forwardSymbols = search(toSymbolId, lowerBound, upperBound, fromSymbolId, true);
+    if(forwardSymbols == null) {
+      throw new IllegalArgumentException("Edge " + this.graph.getCharacter(fromSymbolId) + "->"
+          + this.graph.getCharacter(toSymbolId) + " closes a cycle");
+    }
+
+    // backward from the edge's source
+    int[] backwardSymbols = search(fromSymbolId, lowerBound, upperBound, -1, false);
+
+    updateCost.symbolsVisited += forwardSymbols.length + backwardSymbols.length;
+
+    // the backward symbols take the lowest of the freed positions, in their current relative order
+    sortByOrderIndex(forwardSymbols);
+    sortByOrderIndex(backwardSymbols);
+    int[] orderIndexes = new int[forwardSymbols.length + backwardSymbols.length];
+    int index = 0;
+    for(int symbolId : backwardSymbols) {
+      orderIndexes[index++] = this.orderIndexBySymbol[symbolId];
+    }
+    for(int symbolId : forwardSymbols) {
+      orderIndexes[index++] = this.orderIndexBySymbol[symbolId];
+    }
+    Arrays.sort(orderIndexes);
+
+    index = 0;
+    for(int symbolId : backwardSymbols) {
+      updateCost.symbolsReordered += place(symbolId, orderIndexes[index++]);
+    }
+    for(int symbolId : forwardSymbols) {
+      updateCost.symbolsReordered += place(symbolId, orderIndexes[index++]);
+    }
+  }
+
+  // depth first search with an explicit stack; returns null when the forward search reaches the cycle symbol
+  int[] search(int startSymbolId, int lowerBound, int upperBound, int cycleSymbolId, boolean forward) {
+    int[] foundSymbols = new int[8];
+    int foundCount = 0;
+    int stackSize = 0;
+
+    this.visitedSymbols.set(startSymbolId);
+    this.symbolStack[stackSize++] = startSymbolId;
+    while(stackSize > 0) {
+      int symbolId = this.symbolStack[--stackSize];
+      if(foundCount == foundSymbols.length) {
+        foundSymbols = Arrays.copyOf(foundSymbols, foundCount << 1);
+      }
+      foundSymbols[foundCount++] = symbolId;
+
+      for(int nextSymbolId = nextNeighbour(symbolId, 0, forward);
+          nextSymbolId >= 0;
+          nextSymbolId = nextNeighbour(symbolId, nextSymbolId + 1, forward)) {
+        int orderIndex = this.orderIndexBySymbol[nextSymbolId];
+        if(nextSymbolId == cycleSymbolId) {
+          return null;
+        }
+        if(this.visitedSymbols.get(nextSymbolId)) {
+          continue;
+        }
+        if(forward ? orderIndex < upperBound : orderIndex > lowerBound) {
+          this.visitedSymbols.set(nextSymbolId);
+          this.symbolStack[stackSize++] = nextSymbolId;
+        }
+      }
+    }
+
+    return Arrays.copyOf(foundSymbols, foundCount);
+  }
+
+  int nextNeighbour(int symbolId, int fromSymbolId, boolean forward) {
+    return forward ? this.graph.nextSuccessor(symbolId, fromSymbolId) : this.predecessors[symbolId].nextSetBit(fromSymbolId);
+  }
+
+  void sortByOrderIndex(int[] symbolIds) {
+    long[] keyedSymbols = new long[symbolIds.length];
+    for(int index = 0; index < symbolIds.length; index++) {
+      keyedSymbols[index] = (long) this.orderIndexBySymbol[symbolIds[index]] << 32 | symbolIds[index];
+    }
+    Arrays.sort(keyedSymbols);
+    for(int index = 0; index < symbolIds.length; index++) {
+      symbolIds[index] = (int) keyedSymbols[index];
+    }
+  }
+
+  // returns 1 when the symbol moved
+  int place(int symbolId, int orderIndex) {
+    int previousOrderIndex = this.orderIndexBySymbol[symbolId];
+    this.orderIndexBySymbol[symbolId] = orderIndex;
+    this.symbolByOrderIndex[orderIndex] = symbolId;
+    if(previousOrderIndex == orderIndex) {
+      return 0;
+    }
+
+    if(this.moveCount == this.moves.length) {
+      this.moves = Arrays.copyOf(this.moves, this.moveCount << 1);
+    }
+    this.moves[this.moveCount++] = (long) symbolId << 32 | previousOrderIndex;
+    return 1;
+  }
+
+}
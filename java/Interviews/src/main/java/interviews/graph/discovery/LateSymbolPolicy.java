@@ -0,0 +1,14 @@
+package interviews.graph.discovery;
+
+/**
+ * What discovery that stops once the order is determined does about symbols first seen after
+ * that point
+ */
+public enum LateSymbolPolicy {
+  // stop reading at once; symbols only in the unread words are not in the alphabet
+  IGNORE,
+  // keep scanning the unread words for new characters, without comparing them, and resume
+  // extracting edges at the first word with one until the order is determined again; the
+  // alphabet then has every symbol, but costs a look up per remaining character
+  RESUME
+}
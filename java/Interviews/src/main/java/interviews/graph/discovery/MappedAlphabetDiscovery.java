@@ -0,0 +1,212 @@
+package interviews.graph.discovery;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Alphabet discovery straight from a newline delimited UTF-8 file, mapped with FileChannel.map.
+ * Adjacent lines are compared byte by byte where they lie in the mapping; only the code points
+ * at the first differing position are decoded, so no String is created per line. The graph is
+ * the one AlphabetDiscovery builds from the same words.
+ */
+public class MappedAlphabetDiscovery {
+  static final int MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+  static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+  final Path path;
+  final TieBreakPolicy tieBreakPolicy;
+  final PrecedenceGraph graph;
+  int segmentSize = MAX_SEGMENT_SIZE;
+  long wordCount = -1;
+  String alphabet;
+
+  // the previous line, either inside the current mapping or copied out of the previous one
+  ByteBuffer previousBuffer;
+  int previousStart;
+  int previousEnd;
+
+  public MappedAlphabetDiscovery(Path path) {
+    this(path, TieBreakPolicy.READY_ORDER);
+  }
+
+  public MappedAlphabetDiscovery(Path path, TieBreakPolicy tieBreakPolicy) {
+    this.path = path;
+    this.tieBreakPolicy = tieBreakPolicy;
+    this.graph = new PrecedenceGraph();
+  }
+
+  public String getAlphabet() throws IOException {
+    if(this.alphabet == null) {
+      this.alphabet = AlphabetDiscovery.computeAlphabet(getGraph(), this.tieBreakPolicy);
+    }
+
+    return this.alphabet;
+  }
+
+  public PrecedenceGraph getGraph() throws IOException {
+    if(this.wordCount < 0) {
+      processFile();
+    }
+
+    return this.graph;
+  }
+
+  public long getWordCount() throws IOException {
+    getGraph();
+    return this.wordCount;
+  }
+
+  void processFile() throws IOException {
+    this.wordCount = 0;
+
+    try(FileChannel fileChannel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+      long fileSize = fileChannel.size();
+      long position = 0;
+      while(position < fileSize) {
+        int mapSize = (int) Math.min(fileSize - position, this.segmentSize);
+        boolean lastSegment = position + mapSize == fileSize;
+        ByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, position, mapSize);
+
+        int lineStart = 0;
+        for(int byteIndex = 0; byteIndex < mapSize; byteIndex++) {
+          if(buffer.get(byteIndex) == '\n') {
+            processLine(buffer, lineStart, byteIndex);
+            lineStart = byteIndex + 1;
+          }
+        }
+
+        if(lastSegment) {
+          if(lineStart < mapSize) {
+            processLine(buffer, lineStart, mapSize);
+          }
+          position = fileSize;
+
+        } else {
+          if(lineStart == 0) {
+            throw new IOException("Line at offset " + position + " is longer than the mapping segment size " + this.segmentSize);
+          }
+          position += lineStart;
+
+          // the next mapping no longer covers the previous line
+          byte[] previousLine = new byte[this.previousEnd - this.previousStart];
+          for(int byteIndex = 0; byteIndex < previousLine.length; byteIndex++) {
+            previousLine[byteIndex] = this.previousBuffer.get(this.previousStart + byteIndex);
+          }
+          this.previousBuffer = ByteBuffer.wrap(previousLine);
+          this.previousStart = 0;
+          this.previousEnd = previousLine.length;
+        }
+      }
+    }
+
+    this.previousBuffer = null;
+  }
+
+  void processLine(ByteBuffer buffer, int start, int end) {
+    if(end > start && buffer.get(end - 1) == '\r') {
+      end--;
+    }
+
+    // create the symbols for every character of the line
+    for(int byteIndex = start; byteIndex < end; ) {
+      byte leadByte = buffer.get(byteIndex);
+      if(leadByte >= 0) {
+        this.graph.addSymbol((char) leadByte);
+        byteIndex++;
+
+      } else {
+        int codePoint = decode(buffer, byteIndex, end);
+        if(Character.isBmpCodePoint(codePoint)) {
+          this.graph.addSymbol((char) codePoint);
+        } else {
+          this.graph.addSymbol(Character.highSurrogate(codePoint));
+          this.graph.addSymbol(Character.lowSurrogate(codePoint));
+        }
+        byteIndex += sequenceLength(leadByte);
+      }
+    }
+
+    if(this.previousBuffer != null) {
+      compareLines(this.previousBuffer, this.previousStart, this.previousEnd, buffer, start, end);
+    }
+
+    this.previousBuffer = buffer;
+    this.previousStart = start;
+    this.previousEnd = end;
+    this.wordCount++;
+  }
+
+  void compareLines(ByteBuffer previousBuffer, int previousStart, int previousEnd, ByteBuffer buffer, int start, int end) {
+    int commonLength = Math.min(previousEnd - previousStart, end - start);
+    int byteIndex = 0;
+    while(byteIndex < commonLength && previousBuffer.get(previousStart + byteIndex) == buffer.get(start + byteIndex)) {
+      byteIndex++;
+    }
+
+    if(byteIndex == commonLength) {
+      return;
+    }
+
+    // back up to the lead byte of the differing code point; everything before it is shared
+    while(byteIndex > 0 && (buffer.get(start + byteIndex) & 0xC0) == 0x80) {
+      byteIndex--;
+    }
+
+    int previousCodePoint = decode(previousBuffer, previousStart + byteIndex, previousEnd);
+    int codePoint = decode(buffer, start + byteIndex, end);
+
+    // the first differing UTF-16 unit, as a String comparison would find it
+    char previousCharacter;
+    char character;
+    if(Character.isBmpCodePoint(previousCodePoint) || Character.isBmpCodePoint(codePoint)
+        || Character.highSurrogate(previousCodePoint) != Character.highSurrogate(codePoint)) {
+      previousCharacter = Character.isBmpCodePoint(previousCodePoint) ? (char) previousCodePoint : Character.highSurrogate(previousCodePoint);
+      character = Character.isBmpCodePoint(codePoint) ? (char) codePoint : Character.highSurrogate(codePoint);
+    } else {
+      previousCharacter = Character.lowSurrogate(previousCodePoint);
+      character = Character.lowSurrogate(codePoint);
+    }
+
+    // malformed sequences decode to the same replacement character
+    if(previousCharacter != character) {
+      this.graph.addEdge(this.graph.getSymbolId(previousCharacter), this.graph.getSymbolId(character));
+    }
+  }
+
+  static int sequenceLength(byte leadByte) {
+    if(leadByte >= 0) {
+      return 1;
+    } else if((leadByte & 0xE0) == 0xC0) {
+      return 2;
+    } else if((leadByte & 0xF0) == 0xE0) {
+      return 3;
+    } else if((leadByte & 0xF8) == 0xF0) {
+      return 4;
+    }
+
+    // a stray continuation byte or an invalid lead byte stands alone
+    return 1;
+  }
+
+  static int decode(ByteBuffer buffer, int index, int end) {
+    byte leadByte = buffer.get(index);
+    int sequenceLength = sequenceLength(leadByte);
+    if(sequenceLength == 1) {
+      return leadByte >= 0 ? leadByte : REPLACEMENT_CHARACTER;
+    }
+    if(index + sequenceLength > end) {
+      return REPLACEMENT_CHARACTER;
+    }
+
+    int codePoint = leadByte & (0x7F >> sequenceLength);
+    for(int byteIndex = index + 1; byteIndex < index + sequenceLength; byteIndex++) {
+      codePoint = (codePoint << 6) | (buffer.get(byteIndex) & 0x3F);
+    }
+
+    return codePoint;
+  }
+
+}
@@ -0,0 +1,185 @@
+package interviews.graph.discovery;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Words packed end to end in one char array, with the start of each word in an offsets array
+ * and one extra offset for the end of the last. Discovery over packed words compares the
+ * characters where they lie in the array and creates no String per word; a String is only
+ * made when a word is asked for through the List view, for example to report an
+ * inconsistent pair. Words can be added at the end; the list is otherwise unmodifiable.
+ */
+public class PackedWords extends AbstractList<String> implements RandomAccess {
+  static final int INITIAL_CAPACITY = 16;
+
+  char[] characters;
+  // offsets[wordIndex] is the word's start, offsets[wordIndex + 1] its end
+  int[] offsets;
+  int wordCount;
+  // the arrays are the caller's, and are copied before the first word is added
+  boolean wrapsArrays;
+
+  public PackedWords() {
+    this.characters = new char[INITIAL_CAPACITY];
+    this.offsets = new int[INITIAL_CAPACITY + 1];
+  }
+
+  // the arrays are used as they are, not copied, and are never written to
+  public PackedWords(char[] characters, int[] offsets, int wordCount) {
+    if(wordCount < 0 || offsets.length <= wordCount || offsets[0] != 0 || offsets[wordCount] > characters.length) {
+      throw new IllegalArgumentException("Offsets do not describe " + wordCount + " words in " + characters.length + " characters");
+    }
+    for(int wordIndex = 0; wordIndex < wordCount; wordIndex++) {
+      if(offsets[wordIndex + 1] < offsets[wordIndex]) {
+        throw new IllegalArgumentException("Offset " + offsets[wordIndex + 1] + " of word " + (wordIndex + 1)
+            + " is before the start of word " + wordIndex);
+      }
+    }
+
+    this.characters = characters;
+    this.offsets = offsets;
+    this.wordCount = wordCount;
+    this.wrapsArrays = true;
+  }
+
+  public static PackedWords of(Iterable<? extends CharSequence> words) {
+    PackedWords packedWords = new PackedWords();
+    for(CharSequence word : words) {
+      packedWords.add(word);
+    }
+    return packedWords;
+  }
+
+  // one word per line, UTF-8, read in blocks without a String per line
+  public static PackedWords read(Path path) throws IOException {
+    PackedWords packedWords = new PackedWords();
+    char[] buffer = new char[1 << 16];
+    boolean inWord = false;
+    try(Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+      for(int readCount = reader.read(buffer); readCount >= 0; readCount = reader.read(buffer)) {
+        for(int bufferIndex = 0; bufferIndex < readCount; bufferIndex++) {
+          char character = buffer[bufferIndex];
+          if(character == '\n') {
+            packedWords.endWord();
+            inWord = false;
+          } else {
+            packedWords.appendCharacter(character);
+            inWord = true;
+          }
+        }
+      }
+    }
+    if(inWord) {
+      packedWords.endWord();
+    }
+
+    return packedWords;
+  }
+
+  public boolean add(CharSequence word) {
+    int length = word.length();
+    ensureCharacterCapacity(length);
+    int start = this.offsets[this.wordCount];
+    for(int characterIndex = 0; characterIndex < length; characterIndex++) {
+      this.characters[start + characterIndex] = word.charAt(characterIndex);
+    }
+    this.offsets[this.wordCount + 1] = start + length;
+    nextWord();
+
+    return true;
+  }
+
+  @Override
+  public boolean add(String word) {
+    return add((CharSequence) word);
+  }
+
+  void appendCharacter(char character) {
+    ensureCharacterCapacity(1);
+    this.characters[this.offsets[this.wordCount + 1]++] = character;
+  }
+
+  // ends the word built by appendCharacter, dropping a carriage return
+  void endWord() {
+    int end = this.offsets[this.wordCount + 1];
+    if(end > this.offsets[this.wordCount] && this.characters[end - 1] == '\r') {
+      this.offsets[this.wordCount + 1] = end - 1;
+    }
+    nextWord();
+  }
+
+  void nextWord() {
+    this.wordCount++;
+    if(this.wordCount + 1 == this.offsets.length) {
+      this.offsets = Arrays.copyOf(this.offsets, this.offsets.length << 1);
+    }
+    this.offsets[this.wordCount + 1] = this.offsets[this.wordCount];
+  }
+
+  void ensureCharacterCapacity(int additionalLength) {
+    if(this.wrapsArrays) {
+      copyArrays();
+    }
+    int required = this.offsets[this.wordCount + 1] + additionalLength;
+    if(required > this.characters.length) {
+      this.characters = Arrays.copyOf(this.characters, Math.max(required, this.characters.length << 1));
+    }
+  }
+
+  // owned arrays with room for the next word's end offset, set to the current end
+  void copyArrays() {
+    int end = this.offsets[this.wordCount];
+    this.characters = Arrays.copyOf(this.characters, Math.max(end, INITIAL_CAPACITY));
+    this.offsets = Arrays.copyOf(this.offsets, Math.max(this.wordCount + 2, INITIAL_CAPACITY + 1));
+    this.offsets[this.wordCount + 1] = end;
+    this.wrapsArrays = false;
+  }
+
+  @Override
+  public int size() {
+    return this.wordCount;
+  }
+
+  @Override
+  public String get(int wordIndex) {
+    checkWordIndex(wordIndex);
+    return new String(this.characters, this.offsets[wordIndex], this.offsets[wordIndex + 1] - this.offsets[wordIndex]);
+  }
+
+  public int getWordStart(int wordIndex) {
+    checkWordIndex(wordIndex);
+    return this.offsets[wordIndex];
+  }
+
+  public int getWordEnd(int wordIndex) {
+    checkWordIndex(wordIndex);
+    return this.offsets[wordIndex + 1];
+  }
+
+  public int getWordLength(int wordIndex) {
+    return getWordEnd(wordIndex) - getWordStart(wordIndex);
+  }
+
+  public char getCharacter(int wordIndex, int characterIndex) {
+    return this.characters[getWordStart(wordIndex) + characterIndex];
+  }
+
+  // the total length of the words
+  public int getCharacterCount() {
+    return this.offsets[this.wordCount];
+  }
+
+  void checkWordIndex(int wordIndex) {
+    if(wordIndex < 0 || wordIndex >= this.wordCount) {
+      throw new IndexOutOfBoundsException("Word " + wordIndex + " of " + this.wordCount);
+    }
+  }
+
+}
@@ -0,0 +1,51 @@
+package interviews.graph.discovery;
+
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork join edge extraction. Every edge comes from one adjacent pair of words, so the words
+ * are split into ranges sharing one boundary word; each range builds its own graph and the
+ * graphs are merged left to right, which keeps the symbol ids in first seen order.
+ * Every pair belongs to exactly one range, so the extractors' counters simply add up.
+ */
+class ParallelEdgeExtraction extends RecursiveTask<EdgeExtractor> {
+  private static final long serialVersionUID = 1L;
+
+  final List<? extends CharSequence> words;
+  final int wordStartIndex;
+  final int wordEndIndex;
+  final int threshold;
+
+  ParallelEdgeExtraction(List<? extends CharSequence> words, int wordStartIndex, int wordEndIndex, int threshold) {
+    this.words = words;
+    this.wordStartIndex = wordStartIndex;
+    this.wordEndIndex = wordEndIndex;
+    this.threshold = Math.max(threshold, 2);
+  }
+
+  @Override
+  protected EdgeExtractor compute() {
+    if(this.wordEndIndex - this.wordStartIndex <= this.threshold) {
+      EdgeExtractor edgeExtractor = new EdgeExtractor(new PrecedenceGraph());
+      if(this.words instanceof PackedWords) {
+        edgeExtractor.acceptAll((PackedWords) this.words, this.wordStartIndex, this.wordEndIndex);
+      } else {
+        edgeExtractor.acceptAll(this.words.subList(this.wordStartIndex, this.wordEndIndex));
+      }
+      return edgeExtractor;
+    }
+
+    // both halves hold the middle word, so the pair on either side of it is kept
+    int wordMiddleIndex = (this.wordStartIndex + this.wordEndIndex) >>> 1;
+    ParallelEdgeExtraction right = new ParallelEdgeExtraction(this.words, wordMiddleIndex, this.wordEndIndex, this.threshold);
+    right.fork();
+    EdgeExtractor edgeExtractor = new ParallelEdgeExtraction(this.words, this.wordStartIndex, wordMiddleIndex + 1, this.threshold).compute();
+    edgeExtractor.merge(right.join());
+    // the middle word was accepted by both halves
+    edgeExtractor.wordCount--;
+
+    return edgeExtractor;
+  }
+
+}
@@ -0,0 +1,46 @@
+package interviews.graph.discovery;
+
+/**
+ * The alphabet ordered from the words a bounded discovery got through. Every order it states
+ * holds for the whole input, but the words it did not reach may order symbols it left free,
+ * or add symbols it has not seen. The unconstrained symbols were seen but are in no edge, so
+ * their place in the alphabet is only the tie break policy's.
+ */
+public class PartialAlphabet extends DiscoveredAlphabet {
+  final String unconstrainedSymbols;
+  final long processedWordCount;
+  final long wordCount;
+
+  public PartialAlphabet(PrecedenceGraph graph, String alphabet, String unconstrainedSymbols, long processedWordCount, long wordCount) {
+    super(graph, alphabet);
+    this.unconstrainedSymbols = unconstrainedSymbols;
+    this.processedWordCount = processedWordCount;
+    this.wordCount = wordCount;
+  }
+
+  public String getUnconstrainedSymbols() {
+    return this.unconstrainedSymbols;
+  }
+
+  public long getProcessedWordCount() {
+    return this.processedWordCount;
+  }
+
+  public long getWordCount() {
+    return this.wordCount;
+  }
+
+  // the fraction of the words processed, 1 for no words
+  public double getCoverage() {
+    return this.wordCount == 0 ? 1 : (double) this.processedWordCount / this.wordCount;
+  }
+
+  public boolean isComplete() {
+    return this.processedWordCount == this.wordCount;
+  }
+
+  @Override
+  public String toString() {
+    return this.alphabet + " (" + this.processedWordCount + " of " + this.wordCount + " words)";
+  }
+}
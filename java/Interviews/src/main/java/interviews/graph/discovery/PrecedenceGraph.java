@@ -0,0 +1,247 @@
+package interviews.graph.discovery;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+
+/**
+ * Directed Graph over characters, with dense symbol ids and bitset adjacency
+ */
+public class PrecedenceGraph implements SymbolGraph, Serializable {
+  private static final long serialVersionUID = 2L;
+  static final int INITIAL_CAPACITY = 16;
+
+  // symbol id + 1 for each character, so that the zero filled table means "no symbol"
+  int[] symbolIdByCharacter;
+  char[] characters;
+  BitSet[] successors;
+  int[] inEdgeCounts;
+  int symbolCount;
+  int edgeCount;
+  // symbols without predecessors
+  int sourceCount;
+
+  public PrecedenceGraph() {
+    this.symbolIdByCharacter = new int[128];
+    this.characters = new char[INITIAL_CAPACITY];
+    this.successors = new BitSet[INITIAL_CAPACITY];
+    this.inEdgeCounts = new int[INITIAL_CAPACITY];
+  }
+
+  @Override
+  public int getSymbolCount() {
+    return this.symbolCount;
+  }
+
+  public int getEdgeCount() {
+    return this.edgeCount;
+  }
+
+  // kept up to date by every change, so a single chain can be ruled out without a sort
+  public int getSourceCount() {
+    return this.sourceCount;
+  }
+
+  // returns -1 when the character has not been added
+  public int getSymbolId(char character) {
+    if(character >= this.symbolIdByCharacter.length) {
+      return -1;
+    }
+
+    return this.symbolIdByCharacter[character] - 1;
+  }
+
+  public char getCharacter(int symbolId) {
+    return this.characters[symbolId];
+  }
+
+  @Override
+  public int getSymbol(int symbolId) {
+    return this.characters[symbolId];
+  }
+
+  public int addSymbol(char character) {
+    if(character >= this.symbolIdByCharacter.length) {
+      int length = this.symbolIdByCharacter.length;
+      while(length <= character) {
+        length <<= 1;
+      }
+      this.symbolIdByCharacter = Arrays.copyOf(this.symbolIdByCharacter, Math.min(length, Character.MAX_VALUE + 1));
+    }
+
+    int symbolId = this.symbolIdByCharacter[character] - 1;
+    if(symbolId >= 0) {
+      return symbolId;
+    }
+
+    if(this.symbolCount == this.characters.length) {
+      int capacity = this.symbolCount << 1;
+      this.characters = Arrays.copyOf(this.characters, capacity);
+      this.successors = Arrays.copyOf(this.successors, capacity);
+      this.inEdgeCounts = Arrays.copyOf(this.inEdgeCounts, capacity);
+    }
+
+    symbolId = this.symbolCount++;
+    this.symbolIdByCharacter[character] = symbolId + 1;
+    this.characters[symbolId] = character;
+    this.successors[symbolId] = new BitSet();
+    this.sourceCount++;
+
+    return symbolId;
+  }
+
+  // drops the symbols added last, from the given id on; they must have no edges left
+  void removeSymbolsFrom(int symbolCount) {
+    for(int symbolId = symbolCount; symbolId < this.symbolCount; symbolId++) {
+      if(!this.successors[symbolId].isEmpty() || this.inEdgeCounts[symbolId] != 0) {
+        throw new IllegalStateException("Symbol " + this.characters[symbolId] + " still has edges");
+      }
+      this.symbolIdByCharacter[this.characters[symbolId]] = 0;
+      this.successors[symbolId] = null;
+      this.sourceCount--;
+    }
+    this.symbolCount = Math.min(this.symbolCount, symbolCount);
+  }
+
+  // returns true when the edge is new
+  public boolean addEdge(int fromSymbolId, int toSymbolId) {
+    BitSet fromSuccessors = this.successors[fromSymbolId];
+    if(fromSuccessors.get(toSymbolId)) {
+      return false;
+    }
+
+    fromSuccessors.set(toSymbolId);
+    if(this.inEdgeCounts[toSymbolId]++ == 0) {
+      this.sourceCount--;
+    }
+    this.edgeCount++;
+
+    return true;
+  }
+
+  // returns true when the edge was present
+  public boolean removeEdge(int fromSymbolId, int toSymbolId) {
+    BitSet fromSuccessors = this.successors[fromSymbolId];
+    if(!fromSuccessors.get(toSymbolId)) {
+      return false;
+    }
+
+    fromSuccessors.clear(toSymbolId);
+    if(--this.inEdgeCounts[toSymbolId] == 0) {
+      this.sourceCount++;
+    }
+    this.edgeCount--;
+
+    return true;
+  }
+
+  public boolean hasEdge(int fromSymbolId, int toSymbolId) {
+    return this.successors[fromSymbolId].get(toSymbolId);
+  }
+
+  @Override
+  public int getInEdgeCount(int symbolId) {
+    return this.inEdgeCounts[symbolId];
+  }
+
+  // returns the first successor id at or after fromSymbolId, or -1
+  public int nextSuccessor(int symbolId, int fromSymbolId) {
+    return this.successors[symbolId].nextSetBit(fromSymbolId);
+  }
+
+  @Override
+  public void forEachSuccessor(int symbolId, IntConsumer action) {
+    BitSet symbolSuccessors = this.successors[symbolId];
+    for(int successorId = symbolSuccessors.nextSetBit(0); successorId >= 0; successorId = symbolSuccessors.nextSetBit(successorId + 1)) {
+      action.accept(successorId);
+    }
+  }
+
+  // a shortest path between the symbols, both included, by breadth first search; null when there is none
+  public int[] findPath(int fromSymbolId, int toSymbolId) {
+    int[] parents = new int[this.symbolCount];
+    Arrays.fill(parents, -1);
+    parents[fromSymbolId] = fromSymbolId;
+    int[] symbolQueue = new int[this.symbolCount];
+    int queueHead = 0;
+    int queueTail = 0;
+    symbolQueue[queueTail++] = fromSymbolId;
+    while(queueHead < queueTail && parents[toSymbolId] < 0) {
+      int symbolId = symbolQueue[queueHead++];
+      BitSet symbolSuccessors = this.successors[symbolId];
+      for(int successorId = symbolSuccessors.nextSetBit(0); successorId >= 0; successorId = symbolSuccessors.nextSetBit(successorId + 1)) {
+        if(parents[successorId] < 0) {
+          parents[successorId] = symbolId;
+          symbolQueue[queueTail++] = successorId;
+        }
+      }
+    }
+
+    if(parents[toSymbolId] < 0) {
+      return null;
+    }
+
+    int pathLength = 1;
+    for(int symbolId = toSymbolId; symbolId != fromSymbolId; symbolId = parents[symbolId]) {
+      pathLength++;
+    }
+    int[] path = new int[pathLength];
+    for(int symbolId = toSymbolId; pathLength > 0; symbolId = parents[symbolId]) {
+      path[--pathLength] = symbolId;
+    }
+
+    return path;
+  }
+
+  // adds the other graph's symbols, in its order, and its edges
+  public void merge(PrecedenceGraph other) {
+    boolean sameSymbolIds = true;
+    int[] symbolIdMap = new int[other.symbolCount];
+    for(int symbolId = 0; symbolId < other.symbolCount; symbolId++) {
+      symbolIdMap[symbolId] = addSymbol(other.characters[symbolId]);
+      sameSymbolIds &= symbolIdMap[symbolId] == symbolId;
+    }
+
+    for(int symbolId = 0; symbolId < other.symbolCount; symbolId++) {
+      BitSet otherSuccessors = other.successors[symbolId];
+      if(sameSymbolIds) {
+        // or the rows together, counting only the edges that are new here
+        BitSet newSuccessors = (BitSet) otherSuccessors.clone();
+        newSuccessors.andNot(this.successors[symbolId]);
+        this.successors[symbolId].or(newSuccessors);
+        for(int successorId = newSuccessors.nextSetBit(0); successorId >= 0; successorId = newSuccessors.nextSetBit(successorId + 1)) {
+          if(this.inEdgeCounts[successorId]++ == 0) {
+            this.sourceCount--;
+          }
+          this.edgeCount++;
+        }
+
+      } else {
+        for(int successorId = otherSuccessors.nextSetBit(0); successorId >= 0; successorId = otherSuccessors.nextSetBit(successorId + 1)) {
+          addEdge(symbolIdMap[symbolId], symbolIdMap[successorId]);
+        }
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder stringBuilder = new StringBuilder();
+    for(int symbolId = 0; symbolId < this.symbolCount; symbolId++) {
+      if(symbolId > 0) {
+        stringBuilder.append(';');
+      }
+
+      stringBuilder.append("C:").append(this.characters[symbolId]).append(",A:");
+      for(int successorId = nextSuccessor(symbolId, 0); successorId >= 0; successorId = nextSuccessor(symbolId, successorId + 1)) {
+        if(stringBuilder.charAt(stringBuilder.length() - 1) != ':') {
+          stringBuilder.append(',');
+        }
+        stringBuilder.append(this.characters[successorId]);
+      }
+    }
+
+    return stringBuilder.toString();
+  }
+}
@@ -0,0 +1,253 @@
+package interviews.graph.discovery;
+
+import java.util.BitSet;
+
+/**
+ * Transitive closure of an acyclic precedence graph, for constant time "is a before b" queries.
+ * Symbols are numbered by a topological order, so everything a symbol precedes is numbered
+ * after it; the row of the symbol at position p only holds the positions from p's 64 bit word
+ * on, and the rows together take about half the bits of a full matrix. Each row is the or of
+ * its successors' rows, built from the last position back, and the rows of successors always
+ * start at or after the row's first word, so the ors are word aligned.
+ * Memory stays within a bound: when every row does not fit, only the rows of the last
+ * positions, which are the shortest, are kept. A query from an earlier position searches the
+ * graph forwards, never past the position asked about and never below a symbol that has a
+ * row, so the graph must not change once indexed.
+ */
+public class PrecedenceIndex {
+  public enum Precedence {
+    // implied by the words
+    BEFORE,
+    AFTER,
+    // either order is consistent with the words
+    UNCONSTRAINED
+  }
+
+  public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+  final PrecedenceGraph graph;
+  final int[] symbolIdByPosition;
+  final int[] positionBySymbolId;
+  // position + 1 for each character, so that the zero filled table means "no symbol"
+  final int[] positionByCharacter;
+  final char[] characterByPosition;
+  // the first position with a row
+  final int indexedPosition;
+  // row p holds bit q, for q from the start of p + 1's 64 bit word on, when position p precedes position q
+  final long[] rows;
+  // by position - indexedPosition
+  final int[] rowOffsets;
+
+  public PrecedenceIndex(PrecedenceGraph graph) {
+    this(graph, DEFAULT_MAX_BYTES);
+  }
+
+  public PrecedenceIndex(PrecedenceGraph graph, long maxBytes) {
+    int symbolCount = graph.getSymbolCount();
+    int[] order = TopologicalSort.sort(graph, TieBreakPolicy.READY_ORDER);
+    if(order.length < symbolCount) {
+      throw new IllegalArgumentException("The precedence graph has a cycle");
+    }
+
+    this.graph = graph;
+    this.symbolIdByPosition = order;
+    this.characterByPosition = new char[symbolCount];
+    this.positionBySymbolId = new int[symbolCount];
+    char maxCharacter = 0;
+    for(int position = 0; position < symbolCount; position++) {
+      char character = graph.getCharacter(order[position]);
+      this.characterByPosition[position] = character;
+      this.positionBySymbolId[order[position]] = position;
+      maxCharacter = (char) Math.max(maxCharacter, character);
+    }
+    this.positionByCharacter = new int[symbolCount == 0 ? 0 : maxCharacter + 1];
+    for(int position = 0; position < symbolCount; position++) {
+      this.positionByCharacter[this.characterByPosition[position]] = position + 1;
+    }
+
+    // as many of the last rows as fit
+    int wordCount = getWordCount(symbolCount);
+    long maxRowWordCount = Math.min(maxBytes / 8, Integer.MAX_VALUE);
+    long rowWordCount = 0;
+    int indexedPosition = symbolCount;
+    while(indexedPosition > 0 && rowWordCount + wordCount - getFirstWord(indexedPosition - 1) <= maxRowWordCount) {
+      indexedPosition--;
+      rowWordCount += wordCount - getFirstWord(indexedPosition);
+    }
+    this.indexedPosition = indexedPosition;
+
+    this.rowOffsets = new int[symbolCount - indexedPosition + 1];
+    for(int position = indexedPosition; position < symbolCount; position++) {
+      this.rowOffsets[position - indexedPosition + 1] = this.rowOffsets[position - indexedPosition] + wordCount - getFirstWord(position);
+    }
+    this.rows = new long[(int) rowWordCount];
+
+    for(int position = symbolCount - 1; position >= indexedPosition; position--) {
+      int symbolId = order[position];
+      int rowOffset = getRowOffset(position);
+      for(int successorId = graph.nextSuccessor(symbolId, 0); successorId >= 0; successorId = graph.nextSuccessor(symbolId, successorId + 1)) {
+        int successorPosition = this.positionBySymbolId[successorId];
+        this.rows[rowOffset + (successorPosition >>> 6)] |= 1L << successorPosition;
+        // the successor's row starts at or after this row's first word
+        int successorRowOffset = getRowOffset(successorPosition);
+        for(int wordIndex = getFirstWord(successorPosition); wordIndex < wordCount; wordIndex++) {
+          this.rows[rowOffset + wordIndex] |= this.rows[successorRowOffset + wordIndex];
+        }
+      }
+    }
+  }
+
+  // the bytes of the rows of every position for an alphabet of the given size
+  public static long getRequiredBytes(int symbolCount) {
+    int wordCount = getWordCount(symbolCount);
+    long rowWordCount = 0;
+    for(int position = 0; position < symbolCount; position++) {
+      rowWordCount += wordCount - getFirstWord(position);
+    }
+    return 8 * rowWordCount;
+  }
+
+  static int getWordCount(int symbolCount) {
+    return (symbolCount + 63) >>> 6;
+  }
+
+  // only positions after p are ever set in p's row
+  static int getFirstWord(int position) {
+    return (position + 1) >>> 6;
+  }
+
+  // where word 0 of the position's row would be; only its words from getFirstWord on exist
+  int getRowOffset(int position) {
+    return this.rowOffsets[position - this.indexedPosition] - getFirstWord(position);
+  }
+
+  boolean getRowBit(int position, int otherPosition) {
+    return (this.rows[getRowOffset(position) + (otherPosition >>> 6)] & 1L << otherPosition) != 0;
+  }
+
+  public int getSymbolCount() {
+    return this.characterByPosition.length;
+  }
+
+  // the symbols answered by a bit test; queries from the others search the graph
+  public int getIndexedSymbolCount() {
+    return getSymbolCount() - this.indexedPosition;
+  }
+
+  // returns -1 for a character not in the graph
+  public int getPosition(char character) {
+    return character < this.positionByCharacter.length ? this.positionByCharacter[character] - 1 : -1;
+  }
+
+  public char getCharacter(int position) {
+    return this.characterByPosition[position];
+  }
+
+  // true when the position precedes the other position, directly or through other symbols
+  public boolean precedes(int position, int otherPosition) {
+    if(otherPosition <= position) {
+      return false;
+    }
+    if(position >= this.indexedPosition) {
+      return getRowBit(position, otherPosition);
+    }
+    return !getReachable(position, otherPosition, true).isEmpty();
+  }
+
+  // the positions reachable from the position and before the limit, searching below symbols
+  // without rows; with stopAtLimit the search ends as soon as the limit is reached, and then
+  // returns just the limit, or nothing when it is not reachable
+  BitSet getReachable(int position, int limit, boolean stopAtLimit) {
+    BitSet reachable = new BitSet();
+    if(position >= this.indexedPosition) {
+      orRow(reachable, position, limit);
+      return reachable;
+    }
+
+    BitSet visited = new BitSet();
+    int[] positionStack = new int[this.indexedPosition];
+    int stackSize = 0;
+    positionStack[stackSize++] = position;
+    while(stackSize > 0) {
+      int symbolId = this.symbolIdByPosition[positionStack[--stackSize]];
+      for(int successorId = this.graph.nextSuccessor(symbolId, 0); successorId >= 0; successorId = this.graph.nextSuccessor(symbolId, successorId + 1)) {
+        int successorPosition = this.positionBySymbolId[successorId];
+        if(successorPosition == limit && stopAtLimit) {
+          reachable.clear();
+          reachable.set(limit);
+          return reachable;
+        }
+        // positions only grow along a path
+        if(successorPosition >= limit || visited.get(successorPosition)) {
+          continue;
+        }
+        visited.set(successorPosition);
+        reachable.set(successorPosition);
+
+        if(successorPosition < this.indexedPosition) {
+          positionStack[stackSize++] = successorPosition;
+        } else if(stopAtLimit) {
+          if(getRowBit(successorPosition, limit)) {
+            reachable.clear();
+            reachable.set(limit);
+            return reachable;
+          }
+        } else {
+          orRow(reachable, successorPosition, limit);
+        }
+      }
+    }
+
+    return stopAtLimit ? new BitSet() : reachable;
+  }
+
+  // adds the row's positions before the limit
+  void orRow(BitSet reachable, int position, int limit) {
+    int rowOffset = getRowOffset(position);
+    for(int wordIndex = getFirstWord(position); wordIndex < getWordCount(getSymbolCount()) && wordIndex << 6 < limit; wordIndex++) {
+      for(long word = this.rows[rowOffset + wordIndex]; word != 0; word &= word - 1) {
+        int reachablePosition = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+        if(reachablePosition >= limit) {
+          break;
+        }
+        reachable.set(reachablePosition);
+      }
+    }
+  }
+
+  // a character not in the graph, or the same character on both sides, is unconstrained
+  public Precedence getPrecedence(char character, char otherCharacter) {
+    int position = getPosition(character);
+    int otherPosition = getPosition(otherCharacter);
+    if(position < 0 || otherPosition < 0) {
+      return Precedence.UNCONSTRAINED;
+    }
+    if(precedes(position, otherPosition)) {
+      return Precedence.BEFORE;
+    }
+    if(precedes(otherPosition, position)) {
+      return Precedence.AFTER;
+    }
+    return Precedence.UNCONSTRAINED;
+  }
+
+  // the symbols the words place after the first character and before the second, in topological order
+  public String between(char character, char otherCharacter) {
+    int position = getPosition(character);
+    int otherPosition = getPosition(otherCharacter);
+    StringBuilder symbols = new StringBuilder();
+    if(position < 0 || otherPosition < 0 || !precedes(position, otherPosition)) {
+      return symbols.toString();
+    }
+
+    BitSet reachable = getReachable(position, otherPosition, false);
+    for(int betweenPosition = reachable.nextSetBit(0); betweenPosition >= 0; betweenPosition = reachable.nextSetBit(betweenPosition + 1)) {
+      if(precedes(betweenPosition, otherPosition)) {
+        symbols.append(this.characterByPosition[betweenPosition]);
+      }
+    }
+
+    return symbols.toString();
+  }
+
+}
@@ -0,0 +1,295 @@
+package interviews.graph.discovery;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+
+import java.util.*;
+
+/**
+ * Directed Graph
+ */
+class AlphabetGraphNode {
+  final Character character;
+  final Set<Character> antecedents;
+
+  public AlphabetGraphNode(Character character) {
+    this.character = character;
+    this.antecedents = new HashSet<>();
+  }
+
+  @Override
+  public String toString() {
+    return "C:" + this.character + ",A:" + Joiner.on(',').join(this.antecedents);
+  }
+}
+
+/**
+ * The original alphabet discovery: words are split recursively into ranges sharing a prefix,
+ * the graph is a map of boxed characters, and the ordering repeatedly takes the character
+ * with the fewest remaining in edges from a priority queue. Characters that are never
+ * compared follow the ordered ones, in hash set order.
+ */
+public class RecursiveAlphabetDiscovery {
+  final List<String> words;
+  List<Character> alphabet;
+  String alphabetAsString;
+  final Map<Character, AlphabetGraphNode> characterGraphNodeMap;
+  PrecedenceGraph graph;
+  DiscoveryListener discoveryListener = DiscoveryListener.NONE;
+  DiscoveryMetrics metrics;
+  long charactersCompared;
+  long edgePairCount;
+  int recursionDepth;
+  int maxRecursionDepth;
+
+  public RecursiveAlphabetDiscovery(List<String> words) {
+    this.words = words;
+    this.characterGraphNodeMap = new HashMap<>();
+  }
+
+  public List<Character> getAlphabet() {
+    if(alphabet != null) {
+      return alphabet;
+    }
+
+    if(this.words.size() == 0) {
+      this.alphabet = new ArrayList<>();
+      return this.alphabet;
+    }
+
+    if(this.words.size() == 1) {
+      this.alphabet = Lists.charactersOf(this.words.get(0));
+      return this.alphabet;
+    }
+
+    this.metrics = new DiscoveryMetrics();
+    long startNanos = System.nanoTime();
+    processWords(0, this.words.size(), 0);
+    long processedNanos = System.nanoTime();
+    phaseCompleted(DiscoveryMetrics.Phase.EXTRACT_EDGES, processedNanos - startNanos);
+
+    CharacterComparator characterComparator = new CharacterComparator();
+    long comparatorNanos = System.nanoTime();
+    phaseCompleted(DiscoveryMetrics.Phase.BUILD_COMPARATOR, comparatorNanos - processedNanos);
+
+    this.alphabet = orderCharacters(this.characterGraphNodeMap, characterComparator);
+    long orderedNanos = System.nanoTime();
+    phaseCompleted(DiscoveryMetrics.Phase.ORDER_SYMBOLS, orderedNanos - comparatorNanos);
+
+    addUnorderedCharacters(this.words, this.characterGraphNodeMap, this.alphabet);
+    phaseCompleted(DiscoveryMetrics.Phase.COLLECT_UNORDERED, System.nanoTime() - orderedNanos);
+
+    int edgeCount = 0;
+    for(AlphabetGraphNode alphabetGraphNode : this.characterGraphNodeMap.values()) {
+      edgeCount += alphabetGraphNode.antecedents.size();
+    }
+    this.metrics.recordWords(this.words.size());
+    this.metrics.recordCharactersCompared(this.charactersCompared);
+    this.metrics.recordEdgePairs(this.edgePairCount);
+    this.metrics.recordRecursionDepth(this.maxRecursionDepth);
+    this.metrics.recordGraphSize(this.characterGraphNodeMap.size(), edgeCount);
+    this.discoveryListener.discoveryCompleted(this.metrics);
+
+    return this.alphabet;
+  }
+
+  public RecursiveAlphabetDiscovery setDiscoveryListener(DiscoveryListener discoveryListener) {
+    this.discoveryListener = discoveryListener;
+    return this;
+  }
+
+  // null until the alphabet has been computed from more than one word
+  public DiscoveryMetrics getMetrics() {
+    return this.metrics;
+  }
+
+  void phaseCompleted(DiscoveryMetrics.Phase phase, long elapsedNanos) {
+    this.metrics.recordPhase(phase, elapsedNanos);
+    this.discoveryListener.phaseCompleted(phase, elapsedNanos);
+  }
+
+  // the graph as a PrecedenceGraph, with symbol ids in alphabet order
+  public PrecedenceGraph getGraph() {
+    if(this.graph == null) {
+      PrecedenceGraph graph = new PrecedenceGraph();
+      for(Character character : getAlphabet()) {
+        graph.addSymbol(character);
+      }
+      for(AlphabetGraphNode alphabetGraphNode : this.characterGraphNodeMap.values()) {
+        for(Character antecedentCharacter : alphabetGraphNode.antecedents) {
+          graph.addEdge(graph.getSymbolId(alphabetGraphNode.character), graph.getSymbolId(antecedentCharacter));
+        }
+      }
+      this.graph = graph;
+    }
+
+    return this.graph;
+  }
+
+  public String getAlphabetAsString() {
+    if(this.alphabetAsString != null) {
+      return this.alphabetAsString;
+    }
+
+    if(this.words.size() == 0) {
+      this.alphabetAsString = "";
+      return this.alphabetAsString;
+    }
+
+    if(this.words.size() == 1) {
+      this.alphabetAsString = this.words.get(0);
+      return this.alphabetAsString;
+    }
+
+    StringBuilder alphabetStringBuilder = new StringBuilder();
+    List<Character> alphabet = this.getAlphabet();
+    for(Character character : alphabet) {
+      alphabetStringBuilder.append(character);
+    }
+
+    this.alphabetAsString = alphabetStringBuilder.toString();
+
+    return this.alphabetAsString;
+  }
+
+  // process words creating a directed acyclic graph
+  void processWords(int wordStartIndex, int wordCount, int characterSkipCount) {
+    this.recursionDepth++;
+    this.maxRecursionDepth = Math.max(this.maxRecursionDepth, this.recursionDepth);
+
+    int wordIndex = wordStartIndex;
+    int wordEndIndex = wordStartIndex + wordCount;
+
+    if(this.words.get(wordStartIndex).length() == characterSkipCount) {
+      wordIndex++;
+    }
+
+    // create the newly found character, and graph node
+    Character currentCharacter = this.words.get(wordIndex).charAt(characterSkipCount);
+    if(!this.characterGraphNodeMap.containsKey(currentCharacter)) {
+      this.characterGraphNodeMap.put(currentCharacter, new AlphabetGraphNode(currentCharacter));
+    }
+
+    Character previousCharacter = currentCharacter;
+    boolean flagRangeDiscovered = false;
+    int rangeStartIndex = -1;
+    for(wordIndex++; wordIndex < wordEndIndex; wordIndex++) {
+      this.charactersCompared++;
+      if(this.words.get(wordIndex).charAt(characterSkipCount) == previousCharacter) {
+        if(!flagRangeDiscovered) {
+          // start range
+          flagRangeDiscovered = true;
+          rangeStartIndex = wordIndex - 1;
+        }
+
+      } else {
+
+        // complete the range; process it
+        if(flagRangeDiscovered) {
+          assert rangeStartIndex >= 0;
+          processWords(rangeStartIndex, wordIndex - rangeStartIndex, characterSkipCount + 1);
+
+          // close range
+          flagRangeDiscovered = false;
+          rangeStartIndex = -1;
+        }
+
+        // create the newly found character, and graph node
+        currentCharacter = this.words.get(wordIndex).charAt(characterSkipCount);
+        if(!this.characterGraphNodeMap.containsKey(currentCharacter)) {
+          this.characterGraphNodeMap.put(currentCharacter, new AlphabetGraphNode(currentCharacter));
+        }
+
+        // create the graph connection
+        this.characterGraphNodeMap.get(previousCharacter).antecedents.add(currentCharacter);
+        this.edgePairCount++;
+
+        // reset the previous character
+        previousCharacter = currentCharacter;
+      }
+    }
+
+    // complete the range; process it
+    if(flagRangeDiscovered) {
+      assert rangeStartIndex >= 0;
+      processWords(rangeStartIndex, wordIndex - rangeStartIndex, characterSkipCount + 1);
+    }
+
+    this.recursionDepth--;
+  } // for
+
+  class CharacterComparator implements Comparator<Character> {
+    final Map<Character, Integer> inEdgeCountMap;
+
+    public CharacterComparator() {
+      this.inEdgeCountMap = new HashMap<>();
+      for(Character character : characterGraphNodeMap.keySet()) {
+        if(!this.inEdgeCountMap.containsKey(character)) {
+          this.inEdgeCountMap.put(character, 0);
+        }
+
+        for(Character antecedentCharacter : characterGraphNodeMap.get(character).antecedents) {
+          if(!this.inEdgeCountMap.containsKey(antecedentCharacter)) {
+            this.inEdgeCountMap.put(antecedentCharacter, 0);
+          }
+
+          this.inEdgeCountMap.put(antecedentCharacter, this.inEdgeCountMap.get(antecedentCharacter) + 1);
+        }
+      }
+    }
+
+    @Override
+    public int compare(Character firstCharacter, Character secondCharacter) {
+      return Integer.compare(this.inEdgeCountMap.get(firstCharacter), this.inEdgeCountMap.get(secondCharacter));
+    }
+
+    void removeCharacter(Character character) {
+      this.inEdgeCountMap.remove(character);
+      for(Character antecedentCharacter : characterGraphNodeMap.get(character).antecedents) {
+        assert this.inEdgeCountMap.containsKey(antecedentCharacter);
+        assert this.inEdgeCountMap.get(antecedentCharacter) > 0;
+        this.inEdgeCountMap.put(antecedentCharacter, this.inEdgeCountMap.get(antecedentCharacter) - 1);
+      }
+    }
+  }
+
+  static List<Character> orderCharacters(
+      final Map<Character, AlphabetGraphNode> characterGraphNodeMap,
+      final CharacterComparator characterComparator) {
+
+    List<Character> alphabet = new ArrayList<Character>();
+
+    PriorityQueue<Character> characterPriorityQueue = new PriorityQueue<>(characterComparator);
+    characterPriorityQueue.addAll(characterGraphNodeMap.keySet());
+    while(!characterPriorityQueue.isEmpty()) {
+      Character character = characterPriorityQueue.remove();
+      assert characterComparator.inEdgeCountMap.get(character) == 0;
+      characterComparator.removeCharacter(character);
+      characterPriorityQueue.removeAll(characterGraphNodeMap.get(character).antecedents);
+      characterPriorityQueue.addAll(characterGraphNodeMap.get(character).antecedents);
+      alphabet.add(character);
+    }
+
+    return alphabet;
+  }
+
+  static void addUnorderedCharacters(
+      final List<String> words,
+      final Map<Character, AlphabetGraphNode> characterGraphNodeMap,
+      final List<Character> alphabet) {
+
+    Set<Character> unorderedCharacters = new HashSet<>();
+
+    for(String word : words) {
+      for(int characterIndex = 0; characterIndex < word.length(); characterIndex++) {
+        Character character = word.charAt(characterIndex);
+        if(!characterGraphNodeMap.containsKey(character)) {
+          unorderedCharacters.add(character);
+        }
+      }
+    }
+
+    alphabet.addAll(unorderedCharacters);
+  }
+
+}
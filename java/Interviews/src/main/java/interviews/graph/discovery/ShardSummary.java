@@ -0,0 +1,163 @@
+package interviews.graph.discovery;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * What discovery found in one contiguous slice of a sorted dictionary: the slice's graph and
+ * its first and last words. A summary merged with the one for the slice right after it gives
+ * the summary of both slices; the only edge neither slice could see, from the pair across the
+ * boundary, comes from the left slice's last word and the right one's first. Merging is
+ * associative and keeps symbol ids in first seen order, so any grouping of the slices, in
+ * order, gives the graph and alphabet AlphabetDiscovery finds over the whole dictionary.
+ */
+public class ShardSummary implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  // merges to the other summary unchanged
+  public static final ShardSummary EMPTY = new ShardSummary(new PrecedenceGraph(), null, null, 0);
+
+  final PrecedenceGraph graph;
+  final String firstWord;
+  final String lastWord;
+  final long wordCount;
+
+  public ShardSummary(List<String> words) {
+    EdgeExtractor edgeExtractor = new EdgeExtractor(new PrecedenceGraph());
+    edgeExtractor.acceptAll(words);
+
+    this.graph = edgeExtractor.getGraph();
+    this.firstWord = words.isEmpty() ? null : words.get(0);
+    this.lastWord = words.isEmpty() ? null : words.get(words.size() - 1);
+    this.wordCount = words.size();
+  }
+
+  ShardSummary(PrecedenceGraph graph, String firstWord, String lastWord, long wordCount) {
+    this.graph = graph;
+    this.firstWord = firstWord;
+    this.lastWord = lastWord;
+    this.wordCount = wordCount;
+  }
+
+  // the summary of this slice followed by the next one; neither summary is changed
+  public ShardSummary merge(ShardSummary next) {
+    if(next.wordCount == 0) {
+      return this;
+    }
+    if(this.wordCount == 0) {
+      return next;
+    }
+
+    PrecedenceGraph graph = new PrecedenceGraph();
+    graph.merge(this.graph);
+    graph.merge(next.graph);
+
+    // the boundary pair's symbols are already in the graph; only its edge is new
+    EdgeExtractor edgeExtractor = new EdgeExtractor(graph);
+    edgeExtractor.accept(this.lastWord);
+    edgeExtractor.accept(next.firstWord);
+
+    return new ShardSummary(graph, this.firstWord, next.lastWord, this.wordCount + next.wordCount);
+  }
+
+  public PrecedenceGraph getGraph() {
+    return this.graph;
+  }
+
+  // null for an empty slice
+  public String getFirstWord() {
+    return this.firstWord;
+  }
+
+  public String getLastWord() {
+    return this.lastWord;
+  }
+
+  public long getWordCount() {
+    return this.wordCount;
+  }
+
+  public String getAlphabet() {
+    return getAlphabet(TieBreakPolicy.READY_ORDER);
+  }
+
+  // the alphabet AlphabetDiscovery would give for the whole slice with the same policy
+  public String getAlphabet(TieBreakPolicy tieBreakPolicy) {
+    if(this.wordCount == 0) {
+      return "";
+    }
+    if(this.wordCount == 1) {
+      return this.firstWord;
+    }
+
+    return AlphabetDiscovery.computeAlphabet(this.graph, tieBreakPolicy);
+  }
+
+  public void write(OutputStream outputStream) throws IOException {
+    ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
+    objectOutputStream.writeObject(this);
+    objectOutputStream.flush();
+  }
+
+  public static ShardSummary read(InputStream inputStream) throws IOException {
+    try {
+      return (ShardSummary) new ObjectInputStream(inputStream).readObject();
+    } catch(ClassNotFoundException | ClassCastException e) {
+      throw new IOException("Not a shard summary", e);
+    }
+  }
+
+  // keeps the empty summary a singleton
+  Object readResolve() {
+    return this.wordCount == 0 ? EMPTY : this;
+  }
+
+  /**
+   * Summarizes and merges shards in separate processes:
+   *
+   *   summarize <words file> <summary file>     one word per line, UTF-8
+   *   merge <output file> <summary file>...     merges the shards in order, into the output file
+   *   alphabet <summary file>                   prints the alphabet
+   */
+  public static void main(String[] args) throws IOException {
+    if(args.length >= 3 && args[0].equals("summarize")) {
+      List<String> words = Files.readAllLines(Paths.get(args[1]), StandardCharsets.UTF_8);
+      try(OutputStream outputStream = Files.newOutputStream(Paths.get(args[2]))) {
+        new ShardSummary(words).write(outputStream);
+      }
+
+    } else if(args.length >= 3 && args[0].equals("merge")) {
+      // at least one input, so a mistyped command never writes an empty summary
+      ShardSummary shardSummary = EMPTY;
+      for(int argumentIndex = 2; argumentIndex < args.length; argumentIndex++) {
+        shardSummary = shardSummary.merge(read(Paths.get(args[argumentIndex])));
+      }
+      try(OutputStream outputStream = Files.newOutputStream(Paths.get(args[1]))) {
+        shardSummary.write(outputStream);
+      }
+
+    } else if(args.length == 2 && args[0].equals("alphabet")) {
+      System.out.println(read(Paths.get(args[1])).getAlphabet());
+
+    } else {
+      System.err.println("usage: ShardSummary summarize <words> <summary> | merge <output> <summary>... | alphabet <summary>");
+      System.exit(2);
+    }
+  }
+
+  static ShardSummary read(Path path) throws IOException {
+    try(InputStream inputStream = Files.newInputStream(path)) {
+      return read(inputStream);
+    }
+  }
+
+}
@@ -0,0 +1,80 @@
+package interviews.graph.discovery;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Alphabet discovery over words supplied one at a time, in sorted order. Only the previous
+ * word is retained, so dictionaries larger than the heap can be processed.
+ */
+public class StreamingAlphabetDiscovery implements Consumer<CharSequence> {
+  final EdgeExtractor edgeExtractor;
+  final TieBreakPolicy tieBreakPolicy;
+  String alphabet;
+
+  public StreamingAlphabetDiscovery() {
+    this(TieBreakPolicy.READY_ORDER);
+  }
+
+  public StreamingAlphabetDiscovery(TieBreakPolicy tieBreakPolicy) {
+    this.edgeExtractor = new EdgeExtractor(new PrecedenceGraph());
+    this.tieBreakPolicy = tieBreakPolicy;
+  }
+
+  // throw InconsistentDictionaryException at the first contradicting pair; set before the first word
+  public StreamingAlphabetDiscovery setValidating(boolean validating) {
+    this.edgeExtractor.setValidating(validating);
+    return this;
+  }
+
+  @Override
+  public void accept(CharSequence word) {
+    this.edgeExtractor.accept(word);
+    this.alphabet = null;
+  }
+
+  public StreamingAlphabetDiscovery acceptAll(Iterator<? extends CharSequence> words) {
+    while(words.hasNext()) {
+      accept(words.next());
+    }
+
+    return this;
+  }
+
+  public StreamingAlphabetDiscovery acceptAll(Stream<? extends CharSequence> words) {
+    words.forEachOrdered(this);
+
+    return this;
+  }
+
+  // one word per line
+  public StreamingAlphabetDiscovery read(Reader reader) throws IOException {
+    BufferedReader bufferedReader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    for(String word = bufferedReader.readLine(); word != null; word = bufferedReader.readLine()) {
+      accept(word);
+    }
+
+    return this;
+  }
+
+  public long getWordCount() {
+    return this.edgeExtractor.getWordCount();
+  }
+
+  public PrecedenceGraph getGraph() {
+    return this.edgeExtractor.getGraph();
+  }
+
+  public String getAlphabet() {
+    if(this.alphabet == null) {
+      this.alphabet = AlphabetDiscovery.computeAlphabet(this.edgeExtractor.getGraph(), this.tieBreakPolicy);
+    }
+
+    return this.alphabet;
+  }
+
+}
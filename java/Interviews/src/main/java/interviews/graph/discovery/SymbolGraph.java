@@ -0,0 +1,17 @@
+package interviews.graph.discovery;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Directed Graph over symbols with dense ids, as seen by the ordering stages
+ */
+public interface SymbolGraph {
+  int getSymbolCount();
+
+  // the character or code point of the symbol
+  int getSymbol(int symbolId);
+
+  int getInEdgeCount(int symbolId);
+
+  void forEachSuccessor(int symbolId, IntConsumer action);
+}
@@ -0,0 +1,135 @@
+package interviews.graph.discovery;
+
+import java.util.Arrays;
+
+/**
+ * Decides which of several ready symbols the topological sort emits first
+ */
+public interface TieBreakPolicy {
+  // symbols in the order they became ready; constant time per symbol
+  TieBreakPolicy READY_ORDER = new TieBreakPolicy() {
+    @Override
+    public ReadyQueue newReadyQueue(SymbolGraph graph) {
+      return new FifoReadyQueue(graph.getSymbolCount());
+    }
+  };
+
+  // lowest symbol id, i.e. the character seen first in the words
+  TieBreakPolicy FIRST_SEEN = new TieBreakPolicy() {
+    @Override
+    public ReadyQueue newReadyQueue(SymbolGraph graph) {
+      int[] keys = new int[graph.getSymbolCount()];
+      for(int symbolId = 0; symbolId < keys.length; symbolId++) {
+        keys[symbolId] = symbolId;
+      }
+      return new HeapReadyQueue(keys);
+    }
+  };
+
+  // lowest character or code point value
+  TieBreakPolicy SMALLEST_CHARACTER = new TieBreakPolicy() {
+    @Override
+    public ReadyQueue newReadyQueue(SymbolGraph graph) {
+      int[] keys = new int[graph.getSymbolCount()];
+      for(int symbolId = 0; symbolId < keys.length; symbolId++) {
+        keys[symbolId] = graph.getSymbol(symbolId);
+      }
+      return new HeapReadyQueue(keys);
+    }
+  };
+
+  ReadyQueue newReadyQueue(SymbolGraph graph);
+
+  interface ReadyQueue {
+    void add(int symbolId);
+
+    int remove();
+
+    boolean isEmpty();
+  }
+}
+
+class FifoReadyQueue implements TieBreakPolicy.ReadyQueue {
+  final int[] symbolIds;
+  int head;
+  int tail;
+
+  FifoReadyQueue(int capacity) {
+    // every symbol becomes ready at most once
+    this.symbolIds = new int[capacity];
+  }
+
+  @Override
+  public void add(int symbolId) {
+    this.symbolIds[this.tail++] = symbolId;
+  }
+
+  @Override
+  public int remove() {
+    return this.symbolIds[this.head++];
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.head == this.tail;
+  }
+}
+
+class HeapReadyQueue implements TieBreakPolicy.ReadyQueue {
+  final int[] keys;
+  int[] heap;
+  int size;
+
+  HeapReadyQueue(int[] keys) {
+    this.keys = keys;
+    this.heap = new int[Math.max(keys.length, 1)];
+  }
+
+  @Override
+  public void add(int symbolId) {
+    if(this.size == this.heap.length) {
+      this.heap = Arrays.copyOf(this.heap, this.size << 1);
+    }
+
+    // sift up
+    int index = this.size++;
+    while(index > 0) {
+      int parentIndex = (index - 1) >>> 1;
+      if(this.keys[this.heap[parentIndex]] <= this.keys[symbolId]) {
+        break;
+      }
+      this.heap[index] = this.heap[parentIndex];
+      index = parentIndex;
+    }
+    this.heap[index] = symbolId;
+  }
+
+  @Override
+  public int remove() {
+    int top = this.heap[0];
+    int last = this.heap[--this.size];
+
+    // sift down
+    int index = 0;
+    int halfSize = this.size >>> 1;
+    while(index < halfSize) {
+      int childIndex = (index << 1) + 1;
+      if(childIndex + 1 < this.size && this.keys[this.heap[childIndex + 1]] < this.keys[this.heap[childIndex]]) {
+        childIndex++;
+      }
+      if(this.keys[last] <= this.keys[this.heap[childIndex]]) {
+        break;
+      }
+      this.heap[index] = this.heap[childIndex];
+      index = childIndex;
+    }
+    this.heap[index] = last;
+
+    return top;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+}
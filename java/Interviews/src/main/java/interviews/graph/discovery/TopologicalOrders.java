@@ -0,0 +1,160 @@
+package interviews.graph.discovery;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * Lazily enumerates every topological order of a SymbolGraph, in lexicographic order of
+ * symbol ids. Only ready symbols are ever placed, so every partial order extends to a full
+ * one and no permutation is generated just to be rejected; each step costs the out degree
+ * of the symbols placed and taken back. A graph with a cycle has no orders.
+ */
+public class TopologicalOrders implements Iterator<int[]> {
+  final int symbolCount;
+  // successors in compressed rows, copied once from the graph
+  final int[] successorOffsets;
+  final int[] successors;
+  final int[] inEdgeCounts;
+  // unplaced symbols whose predecessors are all placed
+  final BitSet readySymbols;
+  // the symbol placed at each depth; -1 when none has been tried yet
+  final int[] order;
+  int depth;
+  boolean hasNextOrder;
+  boolean advanced;
+
+  public TopologicalOrders(SymbolGraph graph) {
+    this.symbolCount = graph.getSymbolCount();
+    this.successorOffsets = new int[this.symbolCount + 1];
+    this.inEdgeCounts = new int[this.symbolCount];
+    this.readySymbols = new BitSet(this.symbolCount);
+    this.order = new int[this.symbolCount];
+
+    final int[] successorCount = new int[1];
+    IntConsumer countSuccessor = new IntConsumer() {
+      @Override
+      public void accept(int successorId) {
+        successorCount[0]++;
+      }
+    };
+    for(int symbolId = 0; symbolId < this.symbolCount; symbolId++) {
+      graph.forEachSuccessor(symbolId, countSuccessor);
+      this.successorOffsets[symbolId + 1] = successorCount[0];
+      this.inEdgeCounts[symbolId] = graph.getInEdgeCount(symbolId);
+      if(this.inEdgeCounts[symbolId] == 0) {
+        this.readySymbols.set(symbolId);
+      }
+    }
+
+    this.successors = new int[successorCount[0]];
+    successorCount[0] = 0;
+    IntConsumer copySuccessor = new IntConsumer() {
+      @Override
+      public void accept(int successorId) {
+        successors[successorCount[0]++] = successorId;
+      }
+    };
+    for(int symbolId = 0; symbolId < this.symbolCount; symbolId++) {
+      graph.forEachSuccessor(symbolId, copySuccessor);
+    }
+
+    // the first order places the lowest ready symbol each time; a cycle leaves none ready early
+    this.hasNextOrder = true;
+    this.advanced = true;
+    for(; this.depth < this.symbolCount && this.hasNextOrder; this.depth++) {
+      int symbolId = this.readySymbols.nextSetBit(0);
+      this.hasNextOrder = symbolId >= 0;
+      if(this.hasNextOrder) {
+        this.order[this.depth] = symbolId;
+        place(symbolId);
+      }
+    }
+  }
+
+  // the number of orders, counting no further than the limit
+  public static long count(SymbolGraph graph, long limit) {
+    TopologicalOrders topologicalOrders = new TopologicalOrders(graph);
+    long count = 0;
+    while(count < limit && topologicalOrders.hasNext()) {
+      topologicalOrders.advanced = false;
+      count++;
+    }
+
+    return count;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if(!this.advanced) {
+      this.hasNextOrder = advance();
+      this.advanced = true;
+    }
+
+    return this.hasNextOrder;
+  }
+
+  @Override
+  public int[] next() {
+    if(!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    this.advanced = false;
+    return Arrays.copyOf(this.order, this.symbolCount);
+  }
+
+  // moves to the next full order from the current one; false when there is none
+  boolean advance() {
+    // the empty graph has one, empty, order
+    if(this.symbolCount == 0) {
+      return false;
+    }
+
+    // take back the last symbol of the full order, then keep trying the next candidate
+    this.depth--;
+    unplace(this.order[this.depth]);
+    while(true) {
+      int symbolId = this.readySymbols.nextSetBit(this.order[this.depth] + 1);
+      if(symbolId < 0) {
+        // every candidate at this depth has been tried
+        if(this.depth == 0) {
+          return false;
+        }
+        this.depth--;
+        unplace(this.order[this.depth]);
+        continue;
+      }
+
+      this.order[this.depth++] = symbolId;
+      place(symbolId);
+      if(this.depth == this.symbolCount) {
+        return true;
+      }
+      this.order[this.depth] = -1;
+    }
+  }
+
+  void place(int symbolId) {
+    this.readySymbols.clear(symbolId);
+    for(int successorIndex = this.successorOffsets[symbolId]; successorIndex < this.successorOffsets[symbolId + 1]; successorIndex++) {
+      int successorId = this.successors[successorIndex];
+      if(--this.inEdgeCounts[successorId] == 0) {
+        this.readySymbols.set(successorId);
+      }
+    }
+  }
+
+  void unplace(int symbolId) {
+    for(int successorIndex = this.successorOffsets[symbolId]; successorIndex < this.successorOffsets[symbolId + 1]; successorIndex++) {
+      int successorId = this.successors[successorIndex];
+      if(this.inEdgeCounts[successorId]++ == 0) {
+        this.readySymbols.clear(successorId);
+      }
+    }
+    this.readySymbols.set(symbolId);
+  }
+
+}
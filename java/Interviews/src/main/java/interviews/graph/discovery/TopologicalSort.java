@@ -0,0 +1,95 @@
+package interviews.graph.discovery;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Kahn's algorithm over a SymbolGraph, O(V+E) plus the cost of the tie break policy
+ */
+public class TopologicalSort {
+
+  // returns symbol ids in order; shorter than the symbol count when the graph has a cycle
+  public static int[] sort(SymbolGraph graph, TieBreakPolicy tieBreakPolicy) {
+    int symbolCount = graph.getSymbolCount();
+    final int[] inEdgeCounts = new int[symbolCount];
+    final TieBreakPolicy.ReadyQueue readyQueue = tieBreakPolicy.newReadyQueue(graph);
+    for(int symbolId = 0; symbolId < symbolCount; symbolId++) {
+      inEdgeCounts[symbolId] = graph.getInEdgeCount(symbolId);
+      if(inEdgeCounts[symbolId] == 0) {
+        readyQueue.add(symbolId);
+      }
+    }
+
+    IntConsumer removeInEdge = new IntConsumer() {
+      @Override
+      public void accept(int successorId) {
+        if(--inEdgeCounts[successorId] == 0) {
+          readyQueue.add(successorId);
+        }
+      }
+    };
+
+    int[] order = new int[symbolCount];
+    int orderLength = 0;
+    while(!readyQueue.isEmpty()) {
+      int symbolId = readyQueue.remove();
+      order[orderLength++] = symbolId;
+      graph.forEachSuccessor(symbolId, removeInEdge);
+    }
+
+    return orderLength == symbolCount ? order : Arrays.copyOf(order, orderLength);
+  }
+
+  // true when the graph allows exactly one order: Kahn's algorithm never has two symbols ready at once
+  public static boolean isUnique(SymbolGraph graph) {
+    int symbolCount = graph.getSymbolCount();
+    final int[] inEdgeCounts = new int[symbolCount];
+    // the ready symbols, as a stack; more than one means a choice
+    final int[] readySymbols = new int[symbolCount];
+    final int[] readyCount = new int[1];
+    for(int symbolId = 0; symbolId < symbolCount; symbolId++) {
+      inEdgeCounts[symbolId] = graph.getInEdgeCount(symbolId);
+      if(inEdgeCounts[symbolId] == 0) {
+        readySymbols[readyCount[0]++] = symbolId;
+      }
+    }
+
+    IntConsumer removeInEdge = new IntConsumer() {
+      @Override
+      public void accept(int successorId) {
+        if(--inEdgeCounts[successorId] == 0) {
+          readySymbols[readyCount[0]++] = successorId;
+        }
+      }
+    };
+
+    int orderLength = 0;
+    while(readyCount[0] == 1) {
+      int symbolId = readySymbols[--readyCount[0]];
+      orderLength++;
+      graph.forEachSuccessor(symbolId, removeInEdge);
+    }
+
+    // a choice, or a cycle stopping the sort early
+    return orderLength == symbolCount;
+  }
+
+  // the symbols the sort could not reach, because they are on or behind a cycle, in id order
+  public static int[] remainingSymbols(SymbolGraph graph, int[] order) {
+    boolean[] ordered = new boolean[graph.getSymbolCount()];
+    for(int symbolId : order) {
+      ordered[symbolId] = true;
+    }
+
+    int[] remainingSymbols = new int[graph.getSymbolCount() - order.length];
+    int remainingCount = 0;
+    for(int symbolId = 0; symbolId < ordered.length; symbolId++) {
+      if(!ordered[symbolId]) {
+        remainingSymbols[remainingCount++] = symbolId;
+      }
+    }
+
+    return remainingSymbols;
+  }
+
+}
@@ -0,0 +1,122 @@
+package interviews.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded generator of sorted dictionaries over a hidden alphabet
+ */
+public class SyntheticDictionary {
+  // printable characters that are neither line breaks nor surrogates
+  static final int FIRST_CHARACTER = 0x21;
+  public static final int MAX_ALPHABET_SIZE = 0xFFFE - FIRST_CHARACTER - (Character.MAX_SURROGATE - Character.MIN_SURROGATE + 1);
+
+  final String hiddenAlphabet;
+  final int[] rankByCharacter;
+  final List<String> words;
+
+  SyntheticDictionary(String hiddenAlphabet, List<String> words) {
+    this.hiddenAlphabet = hiddenAlphabet;
+    this.rankByCharacter = new int[Character.MAX_VALUE + 1];
+    Arrays.fill(this.rankByCharacter, -1);
+    for(int rank = 0; rank < hiddenAlphabet.length(); rank++) {
+      this.rankByCharacter[hiddenAlphabet.charAt(rank)] = rank;
+    }
+    this.words = words;
+  }
+
+  public String getHiddenAlphabet() {
+    return this.hiddenAlphabet;
+  }
+
+  public List<String> getWords() {
+    return this.words;
+  }
+
+  public int getRank(char character) {
+    return this.rankByCharacter[character];
+  }
+
+  /**
+   * Words of 1 to wordLength random characters after a prefix of prefixDepth characters shared
+   * by every word; when withChain is set, the single character words pin down the whole order.
+   */
+  public static SyntheticDictionary generate(
+      long seed, int alphabetSize, int wordCount, int wordLength, int prefixDepth, boolean withChain) {
+
+    if(alphabetSize < 1 || alphabetSize > MAX_ALPHABET_SIZE) {
+      throw new IllegalArgumentException("Alphabet size " + alphabetSize + " is not within 1.." + MAX_ALPHABET_SIZE);
+    }
+
+    Random random = new Random(seed);
+
+    List<Character> characters = new ArrayList<>(MAX_ALPHABET_SIZE);
+    for(int character = FIRST_CHARACTER; characters.size() < MAX_ALPHABET_SIZE; character++) {
+      if(!Character.isSurrogate((char) character)) {
+        characters.add((char) character);
+      }
+    }
+    Collections.shuffle(characters, random);
+    char[] hiddenAlphabet = new char[alphabetSize];
+    for(int rank = 0; rank < alphabetSize; rank++) {
+      hiddenAlphabet[rank] = characters.get(rank);
+    }
+
+    char[] prefix = new char[prefixDepth];
+    for(int characterIndex = 0; characterIndex < prefixDepth; characterIndex++) {
+      prefix[characterIndex] = hiddenAlphabet[random.nextInt(alphabetSize)];
+    }
+
+    List<String> words = new ArrayList<>(wordCount + (withChain ? alphabetSize : 0));
+    char[] word = new char[prefixDepth + wordLength];
+    System.arraycopy(prefix, 0, word, 0, prefixDepth);
+    for(int wordIndex = 0; wordIndex < wordCount; wordIndex++) {
+      int length = prefixDepth + 1 + random.nextInt(Math.max(wordLength, 1));
+      for(int characterIndex = prefixDepth; characterIndex < length; characterIndex++) {
+        word[characterIndex] = hiddenAlphabet[random.nextInt(alphabetSize)];
+      }
+      words.add(new String(word, 0, length));
+    }
+    if(withChain) {
+      for(char character : hiddenAlphabet) {
+        words.add(String.valueOf(character));
+      }
+    }
+
+    final SyntheticDictionary dictionary = new SyntheticDictionary(new String(hiddenAlphabet), words);
+    Collections.sort(words, dictionary.getComparator());
+
+    // drop duplicates
+    int uniqueCount = 0;
+    for(int wordIndex = 0; wordIndex < words.size(); wordIndex++) {
+      if(uniqueCount == 0 || !words.get(wordIndex).equals(words.get(uniqueCount - 1))) {
+        words.set(uniqueCount++, words.get(wordIndex));
+      }
+    }
+    words.subList(uniqueCount, words.size()).clear();
+
+    return dictionary;
+  }
+
+  public Comparator<String> getComparator() {
+    return new Comparator<String>() {
+      @Override
+      public int compare(String firstWord, String secondWord) {
+        int commonLength = Math.min(firstWord.length(), secondWord.length());
+        for(int characterIndex = 0; characterIndex < commonLength; characterIndex++) {
+          char firstCharacter = firstWord.charAt(characterIndex);
+          char secondCharacter = secondWord.charAt(characterIndex);
+          if(firstCharacter != secondCharacter) {
+            return Integer.compare(rankByCharacter[firstCharacter], rankByCharacter[secondCharacter]);
+          }
+        }
+        return Integer.compare(firstWord.length(), secondWord.length());
+      }
+    };
+  }
+
+}
@@ -0,0 +1,112 @@
+package interviews.graph.collation;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import interviews.graph.discovery.AlphabetDiscovery;
+import org.junit.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+@Test
+public class CollationTest {
+  @BeforeMethod
+  public void setUp(Method method)
+  {
+    Reporter.log("::" + method.getName(), true);
+    System.out.flush();
+  }
+
+  public void testCompare() {
+    Collation collation = new Collation(new AlphabetDiscovery(Lists.newArrayList("wrt", "wrf", "er", "ett", "rftt")).getAlphabet());
+    Assert.assertEquals(collation.getAlphabet(), "wertf");
+
+    Assert.assertTrue(collation.compare("wrt", "wrf") < 0);
+    Assert.assertTrue(collation.compare("er", "ett") < 0);
+    Assert.assertTrue(collation.compare("et", "ett") < 0);
+    Assert.assertEquals(collation.compare("rftt", "rftt"), 0);
+    // characters outside the alphabet go last, in character order
+    Assert.assertTrue(collation.compare("f", "a") < 0);
+    Assert.assertTrue(collation.compare("a", "z") < 0);
+    Assert.assertEquals(collation.getRank('f'), 4);
+    Assert.assertEquals(collation.getRank('a'), 5 + 'a');
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testDuplicateCharacter() {
+    new Collation("abca");
+  }
+
+  public void testSortAndSearch() {
+    String alphabet = "qwertyuiopasdfghjklzxcvbnm";
+    final String collationAlphabet = alphabet.substring(0, 20);
+    Collation collation = new Collation(collationAlphabet);
+    Comparator<String> indexOfComparator = new Comparator<String>() {
+      @Override
+      public int compare(String word1, String word2) {
+        for(int characterIndex = 0; characterIndex < Math.min(word1.length(), word2.length()); characterIndex++) {
+          if(word1.charAt(characterIndex) != word2.charAt(characterIndex)) {
+            return getRank(word1.charAt(characterIndex)) - getRank(word2.charAt(characterIndex));
+          }
+        }
+        return word1.length() - word2.length();
+      }
+
+      int getRank(char character) {
+        int rank = collationAlphabet.indexOf(character);
+        return rank >= 0 ? rank : collationAlphabet.length() + character;
+      }
+    };
+
+    Random random = new Random(11);
+    List<String> wordList = new ArrayList<>();
+    for(int wordIndex = 0; wordIndex < 100000; wordIndex++) {
+      // a shared prefix on some words, to exercise the deep passes
+      StringBuilder word = new StringBuilder(random.nextInt(10) == 0 ? Strings.repeat("q", 50) : "");
+      int length = random.nextInt(8);
+      for(int characterIndex = 0; characterIndex < length; characterIndex++) {
+        word.append(alphabet.charAt(random.nextInt(random.nextInt(10) == 0 ? alphabet.length() : 6)));
+      }
+      wordList.add(word.toString());
+    }
+
+    String[] words = wordList.toArray(new String[wordList.size()]);
+    String[] expectedWords = words.clone();
+    Arrays.sort(expectedWords, indexOfComparator);
+
+    ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+    try {
+      collation.sort(words, forkJoinPool);
+    } finally {
+      forkJoinPool.shutdown();
+    }
+
+    Assert.assertArrayEquals(words, expectedWords);
+
+    for(int wordIndex = 0; wordIndex < 1000; wordIndex++) {
+      String word = wordList.get(wordIndex);
+      Assert.assertEquals(words[collation.binarySearch(words, word)], word);
+      Assert.assertEquals(collation.binarySearch(words, word + "\uFFFF\uFFFF"), Arrays.binarySearch(words, word + "\uFFFF\uFFFF", indexOfComparator));
+    }
+  }
+
+  public void testSortEqualWords() {
+    Collation collation = new Collation("ba");
+    String[] words = new String[1000];
+    Arrays.fill(words, Strings.repeat("ab", 5000));
+    words[500] = "";
+    collation.sort(words);
+
+    Assert.assertEquals(words[0], "");
+    Assert.assertEquals(words[999], Strings.repeat("ab", 5000));
+  }
+
+}
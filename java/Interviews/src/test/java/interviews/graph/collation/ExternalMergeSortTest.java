@@ -0,0 +1,105 @@
+package interviews.graph.collation;
+
+import org.junit.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+@Test
+public class ExternalMergeSortTest {
+  @BeforeMethod
+  public void setUp(Method method)
+  {
+    Reporter.log("::" + method.getName(), true);
+    System.out.flush();
+  }
+
+  static String randomAlphabet(Random random, int alphabetSize) {
+    List<Character> characters = new ArrayList<>();
+    for(int characterIndex = 0; characterIndex < alphabetSize; characterIndex++) {
+      characters.add((char) ('a' + characterIndex));
+    }
+    Collections.shuffle(characters, random);
+
+    StringBuilder alphabet = new StringBuilder();
+    for(char character : characters) {
+      alphabet.append(character);
+    }
+    return alphabet.toString();
+  }
+
+  // mostly alphabet characters, some characters outside it, some beyond the rank table
+  static List<String> randomWords(Random random, String alphabet, int wordCount) {
+    List<String> words = new ArrayList<>();
+    for(int wordIndex = 0; wordIndex < wordCount; wordIndex++) {
+      StringBuilder word = new StringBuilder();
+      int length = random.nextInt(12);
+      for(int characterIndex = 0; characterIndex < length; characterIndex++) {
+        int choice = random.nextInt(50);
+        word.append(choice == 0 ? '\u00E9' : choice == 1 ? 'A' : alphabet.charAt(random.nextInt(Math.min(alphabet.length(), 8))));
+      }
+      words.add(word.toString());
+    }
+    return words;
+  }
+
+  public void testKeys() {
+    Random random = new Random(17);
+    for(int alphabetSize : new int[] {3, 254, 255, 300}) {
+      Collation collation = new Collation(randomAlphabet(random, alphabetSize));
+      Assert.assertEquals(collation.getKeyUnitLength(), alphabetSize < 255 ? 1 : 2);
+
+      List<String> words = randomWords(random, collation.getAlphabet(), 2000);
+      for(int wordIndex = 1; wordIndex < words.size(); wordIndex++) {
+        String previousWord = words.get(wordIndex - 1);
+        String word = words.get(wordIndex);
+        byte[] key = collation.getKey(word);
+
+        Assert.assertEquals(key.length, collation.getKeyLength(word));
+        Assert.assertEquals(collation.getWord(key), word);
+        Assert.assertEquals(Integer.signum(Collation.KEY_ORDER.compare(collation.getKey(previousWord), key)),
+            Integer.signum(collation.compare(previousWord, word)));
+      }
+    }
+  }
+
+  public void testSort() throws IOException {
+    Random random = new Random(19);
+    Collation collation = new Collation(randomAlphabet(random, 8));
+    List<String> words = randomWords(random, collation.getAlphabet(), 20000);
+
+    Path directory = Files.createTempDirectory("external");
+    try {
+      Path inputPath = directory.resolve("input.txt");
+      Path outputPath = directory.resolve("output.txt");
+      Files.write(inputPath, words, StandardCharsets.UTF_8);
+
+      ExternalMergeSort externalMergeSort = new ExternalMergeSort(collation, directory, 32 * 1024);
+      externalMergeSort.mergeWidth = 4;
+      externalMergeSort.sort(inputPath, outputPath);
+      Reporter.log(externalMergeSort.getRunCount() + " runs, " + externalMergeSort.getMergePassCount() + " merge passes", true);
+
+      Assert.assertTrue(externalMergeSort.getMergePassCount() > 1);
+      Collections.sort(words, collation);
+      Assert.assertEquals(Files.readAllLines(outputPath, StandardCharsets.UTF_8), words);
+
+      // only the input and output are left
+      Assert.assertEquals(directory.toFile().list().length, 2);
+      Files.delete(inputPath);
+      Files.delete(outputPath);
+    } finally {
+      Files.delete(directory);
+    }
+  }
+
+}
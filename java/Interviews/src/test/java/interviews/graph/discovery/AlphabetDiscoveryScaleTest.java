@@ -0,0 +1,159 @@
+package interviews.graph.discovery;
+
+import interviews.graph.SyntheticDictionary;
+import org.junit.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.reflect.Method;
+
+/**
+ * Soak tests over millions of words, alphabets of tens of thousands of symbols and very deep
+ * shared prefixes, checked against the generator's hidden alphabet. Each engine runs on a
+ * thread with a small stack and within a wall clock and heap budget, so recursion that grows
+ * with the input or ordering that grows quadratically fails here rather than in production.
+ * Excluded from the default test task; run with gradle scaleTest.
+ */
+@Test(groups = "scale")
+public class AlphabetDiscoveryScaleTest {
+  // enough for the non recursive engines at any input size
+  static final long STACK_SIZE = 256 * 1024;
+  static final long MEGABYTE = 1024 * 1024;
+
+  @BeforeMethod(groups = "scale")
+  public void setUp(Method method)
+  {
+    Reporter.log("::" + method.getName(), true);
+    System.out.flush();
+  }
+
+  public void testMillionsOfWords() throws InterruptedException {
+    SyntheticDictionary dictionary = SyntheticDictionary.generate(101, 26, 3000000, 12, 0, true);
+    for(AlphabetDiscoveryEngine alphabetDiscoveryEngine : new AlphabetDiscoveryEngine[] {
+        AlphabetDiscoveryEngine.PRIMITIVE, AlphabetDiscoveryEngine.PARALLEL,
+        AlphabetDiscoveryEngine.STREAMING, AlphabetDiscoveryEngine.MISMATCH}) {
+      discoverWithinBudget(alphabetDiscoveryEngine, dictionary, 5000, 512 * MEGABYTE);
+    }
+  }
+
+  public void testLargestAlphabet() throws InterruptedException {
+    SyntheticDictionary dictionary = SyntheticDictionary.generate(103, SyntheticDictionary.MAX_ALPHABET_SIZE, 200000, 8, 0, true);
+    for(AlphabetDiscoveryEngine alphabetDiscoveryEngine : new AlphabetDiscoveryEngine[] {
+        AlphabetDiscoveryEngine.PRIMITIVE, AlphabetDiscoveryEngine.STREAMING, AlphabetDiscoveryEngine.MISMATCH}) {
+      discoverWithinBudget(alphabetDiscoveryEngine, dictionary, 10000, 1536 * MEGABYTE);
+    }
+  }
+
+  // every word shares a prefix far deeper than a recursive descent's stack allows
+  public void testDeepPrefixes() throws InterruptedException {
+    SyntheticDictionary dictionary = SyntheticDictionary.generate(107, 1000, 2000, 8, 100000, false);
+    for(AlphabetDiscoveryEngine alphabetDiscoveryEngine : new AlphabetDiscoveryEngine[] {
+        AlphabetDiscoveryEngine.PRIMITIVE, AlphabetDiscoveryEngine.PARALLEL, AlphabetDiscoveryEngine.STREAMING}) {
+      discoverWithinBudget(alphabetDiscoveryEngine, dictionary, 5000, 64 * MEGABYTE);
+    }
+    // the packed copy of the input, grown by doubling
+    discoverWithinBudget(AlphabetDiscoveryEngine.MISMATCH, dictionary, 5000, 64 * MEGABYTE + 4 * getCharacterBytes(dictionary));
+  }
+
+  // the recursive engine within the budgets its depth allows
+  public void testRecursiveEngine() throws InterruptedException {
+    SyntheticDictionary dictionary = SyntheticDictionary.generate(109, 26, 500000, 8, 0, true);
+    discoverWithinBudget(AlphabetDiscoveryEngine.SEQUENTIAL, dictionary, 10000, 1024 * MEGABYTE);
+  }
+
+  static void discoverWithinBudget(
+      final AlphabetDiscoveryEngine alphabetDiscoveryEngine, final SyntheticDictionary dictionary,
+      long timeBudgetMillis, long heapBudgetBytes) throws InterruptedException {
+
+    final DiscoveredAlphabet[] discoveredAlphabet = new DiscoveredAlphabet[1];
+    final Throwable[] failure = new Throwable[1];
+    Thread thread = new Thread(null, new Runnable() {
+      @Override
+      public void run() {
+        try {
+          discoveredAlphabet[0] = alphabetDiscoveryEngine.discover(dictionary.getWords());
+        } catch(Throwable e) {
+          failure[0] = e;
+        }
+      }
+    }, alphabetDiscoveryEngine.toString(), STACK_SIZE);
+
+    long heapBefore = resetPeakHeap();
+    long startNanos = System.nanoTime();
+    thread.start();
+    thread.join();
+    long elapsedMillis = (System.nanoTime() - startNanos) / 1000000;
+    long heapUsed = getPeakHeap() - heapBefore;
+
+    Reporter.log(alphabetDiscoveryEngine + ": " + dictionary.getWords().size() + " words, "
+        + elapsedMillis + " ms, " + heapUsed / MEGABYTE + " MB", true);
+    if(failure[0] != null) {
+      throw new AssertionError(alphabetDiscoveryEngine + " failed", failure[0]);
+    }
+    Assert.assertTrue(alphabetDiscoveryEngine + " took " + elapsedMillis + " ms", elapsedMillis <= timeBudgetMillis);
+    Assert.assertTrue(alphabetDiscoveryEngine + " used " + heapUsed / MEGABYTE + " MB", heapUsed <= heapBudgetBytes);
+
+    assertConsistent(alphabetDiscoveryEngine, dictionary, discoveredAlphabet[0]);
+  }
+
+  // every edge agrees with the hidden alphabet, and the alphabet with every edge
+  static void assertConsistent(AlphabetDiscoveryEngine alphabetDiscoveryEngine, SyntheticDictionary dictionary, DiscoveredAlphabet discoveredAlphabet) {
+    PrecedenceGraph graph = discoveredAlphabet.getGraph();
+    String alphabet = discoveredAlphabet.getAlphabet();
+    Assert.assertEquals(alphabet.length(), graph.getSymbolCount());
+
+    int[] alphabetIndexBySymbolId = new int[graph.getSymbolCount()];
+    for(int alphabetIndex = 0; alphabetIndex < alphabet.length(); alphabetIndex++) {
+      alphabetIndexBySymbolId[graph.getSymbolId(alphabet.charAt(alphabetIndex))] = alphabetIndex;
+    }
+    for(int symbolId = 0; symbolId < graph.getSymbolCount(); symbolId++) {
+      for(int successorId = graph.nextSuccessor(symbolId, 0); successorId >= 0; successorId = graph.nextSuccessor(symbolId, successorId + 1)) {
+        Assert.assertTrue(alphabetDiscoveryEngine + " edge against the hidden alphabet",
+            dictionary.getRank(graph.getCharacter(symbolId)) < dictionary.getRank(graph.getCharacter(successorId)));
+        Assert.assertTrue(alphabetDiscoveryEngine + " alphabet against an edge",
+            alphabetIndexBySymbolId[symbolId] < alphabetIndexBySymbolId[successorId]);
+      }
+    }
+
+    // the single character words of a chained dictionary leave only the hidden order
+    if(graph.getSymbolCount() == dictionary.getHiddenAlphabet().length() && TopologicalSort.isUnique(graph)) {
+      Assert.assertEquals(alphabet, dictionary.getHiddenAlphabet());
+    }
+  }
+
+  static long getCharacterBytes(SyntheticDictionary dictionary) {
+    long characterCount = 0;
+    for(String word : dictionary.getWords()) {
+      characterCount += word.length();
+    }
+    return 2 * characterCount;
+  }
+
+  static long resetPeakHeap() {
+    System.gc();
+    long heapUsed = 0;
+    for(MemoryPoolMXBean memoryPool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if(memoryPool.getType() == MemoryType.HEAP) {
+        memoryPool.resetPeakUsage();
+        heapUsed += memoryPool.getUsage().getUsed();
+      }
+    }
+    return heapUsed;
+  }
+
+  // the sum of the pools' peaks, an upper bound of the heap used at any one time
+  static long getPeakHeap() {
+    long heapUsed = 0;
+    for(MemoryPoolMXBean memoryPool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if(memoryPool.getType() == MemoryType.HEAP) {
+        heapUsed += memoryPool.getPeakUsage().getUsed();
+      }
+    }
+    return heapUsed;
+  }
+
+}
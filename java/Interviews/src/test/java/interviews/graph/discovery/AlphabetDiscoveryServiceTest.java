@@ -0,0 +1,79 @@
+package interviews.graph.discovery;
+
+import interviews.graph.SyntheticDictionary;
+import org.junit.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@Test
+public class AlphabetDiscoveryServiceTest {
+  @BeforeMethod
+  public void setUp(Method method)
+  {
+    Reporter.log("::" + method.getName(), true);
+    System.out.flush();
+  }
+
+  public void testBatch() throws Exception {
+    List<List<String>> wordLists = new ArrayList<>();
+    for(int seed = 0; seed < 200; seed++) {
+      wordLists.add(SyntheticDictionary.generate(seed, 10 + seed % 30, 50, 5, seed % 3, true).getWords());
+    }
+
+    try(AlphabetDiscoveryService alphabetDiscoveryService = new AlphabetDiscoveryService()) {
+      AlphabetDiscoveryService.Batch batch = alphabetDiscoveryService.newBatch(1000);
+      List<CompletableFuture<String>> futures = new ArrayList<>();
+      for(List<String> words : wordLists) {
+        futures.add(batch.submit(words));
+      }
+
+      for(int index = 0; index < wordLists.size(); index++) {
+        Assert.assertEquals(futures.get(index).get(), new AlphabetDiscovery(wordLists.get(index)).getAlphabet());
+      }
+
+      Set<CompletableFuture<String>> completedFutures = new HashSet<>();
+      for(CompletableFuture<String> future = batch.take(); future != null; future = batch.take()) {
+        Assert.assertTrue(future.isDone());
+        completedFutures.add(future);
+      }
+      Assert.assertEquals(completedFutures, new HashSet<>(futures));
+    }
+  }
+
+  // an interrupted close returns and leaves the interrupt for the caller
+  public void testInterruptedClose() throws InterruptedException {
+    final CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    executorService.submit(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          release.await();
+        } catch(InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+
+    Thread.currentThread().interrupt();
+    new AlphabetDiscoveryService(executorService, true).close();
+    Assert.assertTrue(Thread.interrupted());
+    Assert.assertTrue(executorService.isShutdown());
+
+    release.countDown();
+    Assert.assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+  }
+
+}
@@ -0,0 +1,384 @@
+package interviews.graph.discovery;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+import interviews.graph.SyntheticDictionary;
+import org.junit.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@Test
+public class AlphabetDiscoveryTest {
+  @BeforeMethod
+  public void setUp(Method method)
+  {
+    Reporter.log("::" + method.getName(), true);
+    System.out.flush();
+  }
+
+  public void testNoWords() {
+    AlphabetDiscovery alphabetDiscovery = new AlphabetDiscovery(Lists.<String>newArrayList());
+
+    Assert.assertEquals(alphabetDiscovery.getAlphabet(), "");
+  }
+
+  public void testOneWord() {
+    AlphabetDiscovery alphabetDiscovery = new AlphabetDiscovery(
+        Lists.newArrayList("cat")
+    );
+
+    Assert.assertEquals(alphabetDiscovery.getAlphabet(), "cat");
+  }
+
+  public void testPartialOrder3() {
+    AlphabetDiscovery alphabetDiscovery = new AlphabetDiscovery(
+        Lists.newArrayList("ab", "ac", "ad", "beb", "bfb", "bbb", "cgc", "chc", "ccc", "dgd", "ddd")
+    );
+
+    String alphabet = alphabetDiscovery.getAlphabet();
+
+    Reporter.log(alphabet, true);
+    System.out.flush();
+
+    Map<Character, Integer> characterPositionMap = new HashMap<>();
+    for(int characterIndex = 0; characterIndex < alphabet.length(); characterIndex++) {
+      characterPositionMap.put(alphabet.charAt(characterIndex), characterIndex);
+    }
+
+    Assert.assertEquals(alphabet.length(), 8);
+    Assert.assertTrue(characterPositionMap.get('a') < characterPositionMap.get('b'));
+    Assert.assertTrue(characterPositionMap.get('b') < characterPositionMap.get('c'));
+    Assert.assertTrue(characterPositionMap.get('c') < characterPositionMap.get('d'));
+    Assert.assertTrue(characterPositionMap.get('e') < characterPositionMap.get('b'));
+    Assert.assertTrue(characterPositionMap.get('f') < characterPositionMap.get('b'));
+    Assert.assertTrue(characterPositionMap.get('g') < characterPositionMap.get('c'));
+    Assert.assertTrue(characterPositionMap.get('h') < characterPositionMap.get('c'));
+    Assert.assertTrue(characterPositionMap.get('g') < characterPositionMap.get('d'));
+  }
+
+  public void testGraph() {
+    AlphabetDiscovery alphabetDiscovery = new AlphabetDiscovery(
+        Lists.newArrayList("ab", "ad", "b", "c", "d")
+    );
+
+    PrecedenceGraph graph = alphabetDiscovery.getGraph();
+
+    Reporter.log(graph.toString(), true);
+    System.out.flush();
+
+    Assert.assertEquals(graph.getEdgeCount(), 4);
+    Assert.assertTrue(graph.hasEdge(graph.getSymbolId('b'), graph.getSymbolId('d')));
+    Assert.assertTrue(graph.hasEdge(graph.getSymbolId('a'), graph.getSymbolId('b')));
+    Assert.assertTrue(graph.hasEdge(graph.getSymbolId('b'), graph.getSymbolId('c')));
+    Assert.assertTrue(graph.hasEdge(graph.getSymbolId('c'), graph.getSymbolId('d')));
+    Assert.assertEquals(graph.getInEdgeCount(graph.getSymbolId('d')), 2);
+  }
+
+  public void testTieBreakPolicies() {
+    Assert.assertEquals(new AlphabetDiscovery(Lists.newArrayList("zb", "zc", "y")).getAlphabet(), "zbyc");
+    Assert.assertEquals(
+        new AlphabetDiscovery(Lists.newArrayList("zb", "zc", "y"), TieBreakPolicy.FIRST_SEEN).getAlphabet(), "zbcy");
+    Assert.assertEquals(
+        new AlphabetDiscovery(Lists.newArrayList("zb", "zc", "y"), TieBreakPolicy.SMALLEST_CHARACTER).getAlphabet(), "bczy");
+  }
+
+  public void testStreaming() throws IOException {
+    List<String> words = Lists.newArrayList("ab", "ac", "ad", "beb", "bfb", "bbb", "cgc", "chc", "ccc", "dgd", "ddd");
+
+    StreamingAlphabetDiscovery streamingAlphabetDiscovery = new StreamingAlphabetDiscovery()
+        .read(new StringReader(Joiner.on('\n').join(words)));
+
+    Assert.assertEquals(streamingAlphabetDiscovery.getWordCount(), words.size());
+    Assert.assertEquals(streamingAlphabetDiscovery.getAlphabet(), new AlphabetDiscovery(words).getAlphabet());
+    Assert.assertEquals(
+        new StreamingAlphabetDiscovery().acceptAll(words.stream()).getAlphabet(),
+        new AlphabetDiscovery(words).getAlphabet());
+  }
+
+  public void testParallel() {
+    Random random = new Random(7);
+    List<String> words = new ArrayList<>();
+    for(int wordIndex = 0; wordIndex < 5000; wordIndex++) {
+      StringBuilder word = new StringBuilder();
+      int length = 1 + random.nextInt(8);
+      for(int characterIndex = 0; characterIndex < length; characterIndex++) {
+        word.append((char) ('a' + random.nextInt(20)));
+      }
+      words.add(word.toString());
+    }
+    Collections.sort(words);
+
+    ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+    try {
+      AlphabetDiscovery parallelAlphabetDiscovery = new AlphabetDiscovery(words, forkJoinPool);
+      parallelAlphabetDiscovery.parallelThreshold = 37;
+
+      AlphabetDiscovery alphabetDiscovery = new AlphabetDiscovery(words);
+
+      Assert.assertEquals(parallelAlphabetDiscovery.getGraph().toString(), alphabetDiscovery.getGraph().toString());
+      Assert.assertEquals(parallelAlphabetDiscovery.getGraph().getEdgeCount(), alphabetDiscovery.getGraph().getEdgeCount());
+      Assert.assertEquals(parallelAlphabetDiscovery.getAlphabet(), alphabetDiscovery.getAlphabet());
+      Assert.assertEquals(alphabetDiscovery.getAlphabet(), "abcdefghijklmnopqrst");
+    } finally {
+      forkJoinPool.shutdown();
+    }
+  }
+
+  public void testCache() {
+    AlphabetCache alphabetCache = new AlphabetCache(100);
+
+    DiscoveredAlphabet discoveredAlphabet = alphabetCache.get(Lists.newArrayList("ab", "ad", "b", "c", "d"));
+    Assert.assertSame(alphabetCache.get(Lists.newArrayList("ab", "ad", "b", "c", "d")), discoveredAlphabet);
+    Assert.assertNotSame(alphabetCache.get(Lists.newArrayList("a", "bad", "b", "c", "d")), discoveredAlphabet);
+    Assert.assertEquals(discoveredAlphabet.getAlphabet(), "abcd");
+    Assert.assertEquals(alphabetCache.getStats().hitCount(), 1);
+    Assert.assertEquals(alphabetCache.getStats().missCount(), 2);
+
+    for(int wordIndex = 0; wordIndex < 20; wordIndex++) {
+      alphabetCache.get(Lists.newArrayList("a" + wordIndex, "b"));
+    }
+    Assert.assertTrue(alphabetCache.getStats().evictionCount() > 0);
+  }
+
+  public void testMetrics() {
+    final List<DiscoveryMetrics.Phase> phases = new ArrayList<>();
+    DiscoveryListener discoveryListener = new DiscoveryListener() {
+      @Override
+      public void phaseCompleted(DiscoveryMetrics.Phase phase, long elapsedNanos) {
+        phases.add(phase);
+      }
+    };
+
+    List<String> words = Lists.newArrayList("ab", "ba", "bc", "ca", "cc");
+    AlphabetDiscovery alphabetDiscovery = new AlphabetDiscovery(words).setDiscoveryListener(discoveryListener);
+    Assert.assertEquals(alphabetDiscovery.getAlphabet(), "abc");
+    Assert.assertEquals(phases, Lists.newArrayList(DiscoveryMetrics.Phase.EXTRACT_EDGES, DiscoveryMetrics.Phase.ORDER_SYMBOLS));
+
+    DiscoveryMetrics metrics = alphabetDiscovery.getMetrics();
+    Assert.assertEquals(metrics.getWordCount(), 5);
+    Assert.assertEquals(metrics.getCharactersCompared(), 6);
+    Assert.assertEquals(metrics.getEdgesFound(), 3);
+    Assert.assertEquals(metrics.getDuplicateEdges(), 1);
+    Assert.assertEquals(metrics.getPeakSymbolCount(), 3);
+    Assert.assertEquals(metrics.getMaxRecursionDepth(), 0);
+
+    phases.clear();
+    interviews.graph.solution1.AlphabetDiscovery recursiveAlphabetDiscovery =
+        new interviews.graph.solution1.AlphabetDiscovery(words, AlphabetDiscoveryEngine.SEQUENTIAL).setDiscoveryListener(discoveryListener);
+    Assert.assertEquals(recursiveAlphabetDiscovery.getAlphabetAsString(), "abc");
+    Assert.assertEquals(phases, Lists.newArrayList(DiscoveryMetrics.Phase.values()));
+
+    metrics = recursiveAlphabetDiscovery.getMetrics();
+    Assert.assertEquals(metrics.getEdgesFound(), 3);
+    Assert.assertEquals(metrics.getDuplicateEdges(), 1);
+    Assert.assertEquals(metrics.getPeakSymbolCount(), 3);
+    Assert.assertEquals(metrics.getMaxRecursionDepth(), 2);
+  }
+
+  public void testValidationCycle() {
+    List<String> words = Lists.newArrayList("ab", "bc", "ca", "ac", "b");
+    Assert.assertEquals(new AlphabetDiscovery(words).getAlphabet(), "abc");
+
+    try {
+      new AlphabetDiscovery(words).setValidating(true).getAlphabet();
+      Assert.fail();
+    } catch(InconsistentDictionaryException e) {
+      Reporter.log(e.getMessage(), true);
+      Assert.assertEquals(e.getReason(), InconsistentDictionaryException.Reason.CYCLE);
+      Assert.assertEquals(e.getWordPair().getPreviousWord(), "ca");
+      Assert.assertEquals(e.getWordPair().getWord(), "ac");
+      Assert.assertEquals(e.getWordPair().getWordIndex(), 3);
+      Assert.assertEquals(e.getCycle(), "cabc");
+      Assert.assertEquals(e.getCycleWordPairs().toString(), "[3:\"ca\",\"ac\", 1:\"ab\",\"bc\", 2:\"bc\",\"ca\"]");
+    }
+  }
+
+  public void testValidationPrefix() {
+    List<String> words = Lists.newArrayList("a", "abc", "ab", "b");
+    Assert.assertEquals(new AlphabetDiscovery(words).getAlphabet(), "acb");
+
+    ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+    try {
+      AlphabetDiscovery alphabetDiscovery = new AlphabetDiscovery(words, forkJoinPool).setValidating(true);
+      alphabetDiscovery.parallelThreshold = 2;
+      alphabetDiscovery.getAlphabet();
+      Assert.fail();
+    } catch(InconsistentDictionaryException e) {
+      Assert.assertEquals(e.getReason(), InconsistentDictionaryException.Reason.PREFIX_AFTER_EXTENSION);
+      Assert.assertEquals(e.getWordPair().toString(), "2:\"abc\",\"ab\"");
+      Assert.assertEquals(e.getCycle(), "");
+    } finally {
+      forkJoinPool.shutdown();
+    }
+  }
+
+  public void testValidationPassesConsistentWords() {
+    List<String> words = Lists.newArrayList("wrt", "wrf", "er", "ett", "rftt", "rftt");
+    Assert.assertEquals(new AlphabetDiscovery(words).setValidating(true).getAlphabet(), new AlphabetDiscovery(words).getAlphabet());
+    Assert.assertEquals(new StreamingAlphabetDiscovery().setValidating(true).acceptAll(words.iterator()).getAlphabet(),
+        new AlphabetDiscovery(words).getAlphabet());
+  }
+
+  public void testBudget() {
+    List<String> words = Lists.newArrayList("wrt", "wrf", "er", "ett", "rftt");
+    AlphabetDiscovery alphabetDiscovery = new AlphabetDiscovery(words);
+
+    PartialAlphabet partialAlphabet = alphabetDiscovery.getAlphabet(DiscoveryBudget.UNLIMITED);
+    Assert.assertEquals(partialAlphabet.getAlphabet(), alphabetDiscovery.getAlphabet());
+    Assert.assertEquals(partialAlphabet.getGraph().toString(), alphabetDiscovery.getGraph().toString());
+    Assert.assertEquals(partialAlphabet.getUnconstrainedSymbols(), "");
+    Assert.assertTrue(partialAlphabet.isComplete());
+
+    partialAlphabet = alphabetDiscovery.getAlphabet(DiscoveryBudget.ofWords(2));
+    Assert.assertEquals(partialAlphabet.getAlphabet(), "wrtf");
+    Assert.assertEquals(partialAlphabet.getUnconstrainedSymbols(), "wr");
+    Assert.assertEquals(partialAlphabet.getProcessedWordCount(), 2);
+    Assert.assertEquals(partialAlphabet.getCoverage(), 0.4, 0);
+    Assert.assertFalse(partialAlphabet.isComplete());
+
+    partialAlphabet = alphabetDiscovery.getAlphabet(DiscoveryBudget.ofTime(0, TimeUnit.MILLISECONDS));
+    Assert.assertEquals(partialAlphabet.getAlphabet(), "");
+    Assert.assertEquals(partialAlphabet.getProcessedWordCount(), 0);
+
+    Assert.assertEquals(new AlphabetDiscovery(Lists.newArrayList("ab")).getAlphabet(DiscoveryBudget.UNLIMITED).getAlphabet(), "ab");
+    Assert.assertEquals(DiscoveryBudget.ofWords(10).withTime(5, TimeUnit.NANOSECONDS).toString(), "5 ns, 10 words");
+
+    // whatever a deadline leaves out, the edges found hold for the whole input
+    List<String> manyWords = SyntheticDictionary.generate(11, 200, 200000, 8, 0, false).getWords();
+    PrecedenceGraph graph = new AlphabetDiscovery(manyWords).getGraph();
+    for(PackedWords packedWords : new PackedWords[] {null, PackedWords.of(manyWords)}) {
+      partialAlphabet = new AlphabetDiscovery(packedWords == null ? manyWords : packedWords)
+          .getAlphabet(DiscoveryBudget.ofTime(1, TimeUnit.MILLISECONDS).withWords(150000));
+      PrecedenceGraph partialGraph = partialAlphabet.getGraph();
+      Assert.assertTrue(partialAlphabet.getProcessedWordCount() <= 150000);
+      for(int symbolId = 0; symbolId < partialGraph.getSymbolCount(); symbolId++) {
+        for(int successorId = partialGraph.nextSuccessor(symbolId, 0); successorId >= 0; successorId = partialGraph.nextSuccessor(symbolId, successorId + 1)) {
+          Assert.assertTrue(graph.hasEdge(graph.getSymbolId(partialGraph.getCharacter(symbolId)), graph.getSymbolId(partialGraph.getCharacter(successorId))));
+        }
+      }
+    }
+  }
+
+  public void testStopWhenDetermined() {
+    SyntheticDictionary dictionary = SyntheticDictionary.generate(13, 26, 100000, 8, 0, false);
+    List<String> words = dictionary.getWords();
+    Assert.assertEquals(new AlphabetDiscovery(words).getAlphabet(), dictionary.getHiddenAlphabet());
+
+    List<List<String>> inputWordLists = new ArrayList<>();
+    inputWordLists.add(words);
+    inputWordLists.add(PackedWords.of(words));
+    for(LateSymbolPolicy lateSymbolPolicy : LateSymbolPolicy.values()) {
+      for(List<String> inputWords : inputWordLists) {
+        AlphabetDiscovery alphabetDiscovery = new AlphabetDiscovery(inputWords).setStopWhenDetermined(lateSymbolPolicy);
+        Assert.assertEquals(alphabetDiscovery.getAlphabet(), dictionary.getHiddenAlphabet());
+        Assert.assertTrue(lateSymbolPolicy + " read " + alphabetDiscovery.getReadWordCount(), alphabetDiscovery.getReadWordCount() < words.size() / 10);
+        Assert.assertEquals(alphabetDiscovery.getMetrics().getWordCount(), alphabetDiscovery.getReadWordCount());
+      }
+    }
+
+    // a symbol first seen in the last words, placed before the last hidden character
+    String lastWord = words.get(words.size() - 1);
+    char lateCharacter = '\u0001';
+    List<String> lateWords = new ArrayList<>(words);
+    lateWords.add(lastWord + lateCharacter);
+    lateWords.add(lastWord + dictionary.getHiddenAlphabet().charAt(25));
+    String alphabet = new AlphabetDiscovery(lateWords).getAlphabet();
+
+    AlphabetDiscovery alphabetDiscovery = new AlphabetDiscovery(lateWords).setStopWhenDetermined(LateSymbolPolicy.RESUME);
+    Assert.assertEquals(alphabetDiscovery.getAlphabet(), alphabet);
+    Assert.assertTrue(alphabetDiscovery.getGraph().hasEdge(
+        alphabetDiscovery.getGraph().getSymbolId(lateCharacter), alphabetDiscovery.getGraph().getSymbolId(dictionary.getHiddenAlphabet().charAt(25))));
+    Assert.assertTrue(alphabetDiscovery.getReadWordCount() < words.size() / 10);
+
+    alphabetDiscovery = new AlphabetDiscovery(lateWords).setStopWhenDetermined(LateSymbolPolicy.IGNORE);
+    Assert.assertEquals(alphabetDiscovery.getAlphabet(), dictionary.getHiddenAlphabet());
+    // validation reads past the point where the order is determined, to the contradicting pair
+    List<String> contradictingWords = new ArrayList<>(words);
+    contradictingWords.add(lastWord + dictionary.getHiddenAlphabet().charAt(25));
+    contradictingWords.add(lastWord + dictionary.getHiddenAlphabet().charAt(0));
+    alphabetDiscovery = new AlphabetDiscovery(contradictingWords).setStopWhenDetermined(LateSymbolPolicy.IGNORE);
+    Assert.assertEquals(alphabetDiscovery.getAlphabet(), dictionary.getHiddenAlphabet());
+    try {
+      new AlphabetDiscovery(contradictingWords).setStopWhenDetermined(LateSymbolPolicy.IGNORE).setValidating(true).getAlphabet();
+      Assert.fail();
+    } catch(InconsistentDictionaryException e) {
+      Assert.assertEquals(e.getReason(), InconsistentDictionaryException.Reason.CYCLE);
+      Assert.assertEquals(e.getWordPair().getWordIndex(), words.size() + 1);
+    }
+
+    alphabetDiscovery = new AlphabetDiscovery(words).setStopWhenDetermined(LateSymbolPolicy.RESUME).setValidating(true);
+    Assert.assertEquals(alphabetDiscovery.getAlphabet(), dictionary.getHiddenAlphabet());
+    Assert.assertEquals(alphabetDiscovery.getReadWordCount(), words.size());
+  }
+
+  public void testEngines() {
+    List<String> words = SyntheticDictionary.generate(7, 40, 3000, 6, 2, false).getWords();
+    PrecedenceGraph primitiveGraph = AlphabetDiscoveryEngine.PRIMITIVE.discover(words).getGraph();
+
+    for(AlphabetDiscoveryEngine alphabetDiscoveryEngine : new AlphabetDiscoveryEngine[] {
+        AlphabetDiscoveryEngine.SEQUENTIAL, AlphabetDiscoveryEngine.PRIMITIVE,
+        AlphabetDiscoveryEngine.PARALLEL, AlphabetDiscoveryEngine.STREAMING, AlphabetDiscoveryEngine.MISMATCH}) {
+      DiscoveredAlphabet discoveredAlphabet = alphabetDiscoveryEngine.discover(words);
+      PrecedenceGraph graph = discoveredAlphabet.getGraph();
+      String alphabet = discoveredAlphabet.getAlphabet();
+
+      Assert.assertEquals(graph.getSymbolCount(), primitiveGraph.getSymbolCount());
+      Assert.assertEquals(graph.getEdgeCount(), primitiveGraph.getEdgeCount());
+      Assert.assertEquals(alphabet.length(), primitiveGraph.getSymbolCount());
+      for(int fromSymbolId = 0; fromSymbolId < primitiveGraph.getSymbolCount(); fromSymbolId++) {
+        for(int toSymbolId = primitiveGraph.nextSuccessor(fromSymbolId, 0); toSymbolId >= 0; toSymbolId = primitiveGraph.nextSuccessor(fromSymbolId, toSymbolId + 1)) {
+          char fromCharacter = primitiveGraph.getCharacter(fromSymbolId);
+          char toCharacter = primitiveGraph.getCharacter(toSymbolId);
+          Assert.assertTrue(graph.hasEdge(graph.getSymbolId(fromCharacter), graph.getSymbolId(toCharacter)));
+          Assert.assertTrue(alphabetDiscoveryEngine + " " + alphabet, alphabet.indexOf(fromCharacter) < alphabet.indexOf(toCharacter));
+        }
+      }
+    }
+
+    Assert.assertEquals(new interviews.graph.solution2.AlphabetDiscovery(words).getAlphabet(),
+        new interviews.graph.solution3.AlphabetDiscovery(words).getAlphabet());
+    Assert.assertEquals(new interviews.graph.solution2.AlphabetDiscovery(words).getAlphabet(),
+        new AlphabetDiscovery(words).getAlphabet());
+    Assert.assertEquals(new interviews.graph.solution2.AlphabetDiscovery(words, AlphabetDiscoveryEngine.SEQUENTIAL).getAlphabet(),
+        AlphabetDiscoveryEngine.SEQUENTIAL.discover(words).getAlphabet());
+
+    // the selected engine measures its run for the listener too
+    interviews.graph.solution1.AlphabetDiscovery characterListAlphabetDiscovery = new interviews.graph.solution1.AlphabetDiscovery(words);
+    Assert.assertEquals(characterListAlphabetDiscovery.getAlphabetAsString(), new AlphabetDiscovery(words).getAlphabet());
+    Assert.assertEquals(characterListAlphabetDiscovery.getAlphabet().size(), primitiveGraph.getSymbolCount());
+    Assert.assertEquals(characterListAlphabetDiscovery.getMetrics().getWordCount(), words.size());
+    Assert.assertEquals(characterListAlphabetDiscovery.getMetrics().getMaxRecursionDepth(), 0);
+  }
+
+  public void testEngineSelector() {
+    Assert.assertSame(EngineSelector.select(10, 26, 8), AlphabetDiscoveryEngine.PRIMITIVE);
+    Assert.assertSame(EngineSelector.select(1000000, 26, 8), AlphabetDiscoveryEngine.PARALLEL);
+    Assert.assertSame(EngineSelector.select(1000000, 26, 1), AlphabetDiscoveryEngine.PRIMITIVE);
+    Assert.assertSame(EngineSelector.select(1000000, 5000, 8), AlphabetDiscoveryEngine.PRIMITIVE);
+    Assert.assertSame(EngineSelector.select(Lists.newArrayList("ab", "b")), AlphabetDiscoveryEngine.PRIMITIVE);
+
+    // the solution adapters go through the selector, so prefixes deeper than the recursive
+    // engine's stack allows are fine
+    SyntheticDictionary dictionary = SyntheticDictionary.generate(23, 26, 50, 4, 200000, true);
+    Assert.assertEquals(new interviews.graph.solution1.AlphabetDiscovery(dictionary.getWords()).getAlphabetAsString(),
+        new AlphabetDiscovery(dictionary.getWords()).getAlphabet());
+    Assert.assertEquals(new interviews.graph.solution2.AlphabetDiscovery(dictionary.getWords()).getAlphabet(),
+        new AlphabetDiscovery(dictionary.getWords()).getAlphabet());
+    Assert.assertEquals(new interviews.graph.solution3.AlphabetDiscovery(dictionary.getWords()).getAlphabet(),
+        new AlphabetDiscovery(dictionary.getWords()).getAlphabet());
+  }
+
+}
@@ -0,0 +1,49 @@
+package interviews.graph.discovery;
+
+import com.google.common.collect.Lists;
+import interviews.graph.SyntheticDictionary;
+import org.junit.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+
+@Test
+public class CodePointAlphabetDiscoveryTest {
+  @BeforeMethod
+  public void setUp(Method method)
+  {
+    Reporter.log("::" + method.getName(), true);
+    System.out.flush();
+  }
+
+  public void testSupplementaryCodePoints() {
+    // U+1F600 U+1F601 U+1F914 share their high surrogates pairwise, U+4E00 is in the BMP
+    CodePointAlphabetDiscovery alphabetDiscovery = new CodePointAlphabetDiscovery().acceptAll(Lists.newArrayList(
+        "\uD83D\uDE01", "\uD83D\uDE00", "\uD83D\uDE00\u4E00", "\uD83D\uDE00\uD83E\uDD14", "\uD83E\uDD14"));
+
+    CodePointGraph graph = alphabetDiscovery.getGraph();
+
+    Reporter.log(graph.toString(), true);
+    System.out.flush();
+
+    Assert.assertEquals(graph.getSymbolCount(), 4);
+    Assert.assertEquals(graph.getEdgeCount(), 3);
+    Assert.assertTrue(graph.hasEdge(graph.getSymbolId(0x1F601), graph.getSymbolId(0x1F600)));
+    Assert.assertTrue(graph.hasEdge(graph.getSymbolId(0x4E00), graph.getSymbolId(0x1F914)));
+    Assert.assertTrue(graph.hasEdge(graph.getSymbolId(0x1F600), graph.getSymbolId(0x1F914)));
+    Assert.assertEquals(alphabetDiscovery.getAlphabet(), "\uD83D\uDE01\u4E00\uD83D\uDE00\uD83E\uDD14");
+  }
+
+  public void testLargeAlphabet() {
+    SyntheticDictionary dictionary = SyntheticDictionary.generate(11, 40000, 20000, 6, 0, true);
+
+    CodePointAlphabetDiscovery alphabetDiscovery = new CodePointAlphabetDiscovery().acceptAll(dictionary.getWords());
+
+    Assert.assertEquals(alphabetDiscovery.getGraph().getSymbolCount(), 40000);
+    Assert.assertEquals(alphabetDiscovery.getAlphabet(), dictionary.getHiddenAlphabet());
+    Assert.assertEquals(alphabetDiscovery.getAlphabet(), new AlphabetDiscovery(dictionary.getWords()).getAlphabet());
+  }
+
+}
@@ -0,0 +1,273 @@
+package interviews.graph.discovery;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import interviews.graph.SyntheticDictionary;
+import org.junit.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+@Test
+public class EdgeExtractorTest {
+  @BeforeMethod
+  public void setUp(Method method)
+  {
+    Reporter.log("::" + method.getName(), true);
+    System.out.flush();
+  }
+
+  public void testLongSharedPrefix() {
+    String prefix = Strings.repeat("x", 100000);
+    List<String> words = Lists.newArrayList(prefix + "a", prefix + "ab", prefix + "b", prefix + "bac", prefix + "bc", "y");
+
+    PrecedenceGraph graph = new PrecedenceGraph();
+    new EdgeExtractor(graph).acceptAll(words);
+
+    Reporter.log(graph.toString(), true);
+    System.out.flush();
+
+    Assert.assertEquals(graph.getSymbolCount(), 5);
+    Assert.assertEquals(graph.getEdgeCount(), 3);
+    Assert.assertTrue(graph.hasEdge(graph.getSymbolId('a'), graph.getSymbolId('b')));
+    Assert.assertTrue(graph.hasEdge(graph.getSymbolId('a'), graph.getSymbolId('c')));
+    Assert.assertTrue(graph.hasEdge(graph.getSymbolId('x'), graph.getSymbolId('y')));
+
+    String alphabet = new AlphabetDiscovery(words).getAlphabet();
+    Assert.assertTrue(alphabet.indexOf('a') < alphabet.indexOf('b'));
+    Assert.assertTrue(alphabet.indexOf('x') < alphabet.indexOf('y'));
+  }
+
+  public void testMatchesRecursiveProcessWords() {
+    Random random = new Random(42);
+    for(int round = 0; round < 50; round++) {
+      final String hiddenAlphabet = shuffle("abcdefghijklmnop", random);
+      Set<String> wordSet = new HashSet<>();
+      for(int wordIndex = 0; wordIndex < 200; wordIndex++) {
+        StringBuilder word = new StringBuilder();
+        int length = 1 + random.nextInt(6);
+        for(int characterIndex = 0; characterIndex < length; characterIndex++) {
+          word.append(hiddenAlphabet.charAt(random.nextInt(1 + random.nextInt(hiddenAlphabet.length()))));
+        }
+        wordSet.add(word.toString());
+      }
+      List<String> words = new ArrayList<>(wordSet);
+      Collections.sort(words, new Comparator<String>() {
+        @Override
+        public int compare(String firstWord, String secondWord) {
+          for(int characterIndex = 0; characterIndex < Math.min(firstWord.length(), secondWord.length()); characterIndex++) {
+            int result = Integer.compare(
+                hiddenAlphabet.indexOf(firstWord.charAt(characterIndex)),
+                hiddenAlphabet.indexOf(secondWord.charAt(characterIndex)));
+            if(result != 0) {
+              return result;
+            }
+          }
+          return Integer.compare(firstWord.length(), secondWord.length());
+        }
+      });
+
+      Set<String> expectedEdges = new HashSet<>();
+      processWords(words, 0, words.size(), 0, expectedEdges);
+
+      PrecedenceGraph graph = new PrecedenceGraph();
+      new EdgeExtractor(graph).acceptAll(words);
+      Set<String> edges = new HashSet<>();
+      for(int symbolId = 0; symbolId < graph.getSymbolCount(); symbolId++) {
+        for(int successorId = graph.nextSuccessor(symbolId, 0); successorId >= 0; successorId = graph.nextSuccessor(symbolId, successorId + 1)) {
+          edges.add("" + graph.getCharacter(symbolId) + graph.getCharacter(successorId));
+        }
+      }
+
+      Assert.assertEquals(edges, expectedEdges);
+    }
+  }
+
+  public void testPackedWords() throws IOException {
+    List<String> words = SyntheticDictionary.generate(43, 50, 5000, 6, 3, false).getWords();
+    PackedWords packedWords = PackedWords.of(words);
+    Assert.assertEquals(packedWords.size(), words.size());
+    Assert.assertEquals(packedWords, words);
+
+    PrecedenceGraph graph = new PrecedenceGraph();
+    EdgeExtractor edgeExtractor = new EdgeExtractor(graph);
+    edgeExtractor.acceptAll(words);
+    PrecedenceGraph packedGraph = new PrecedenceGraph();
+    EdgeExtractor packedEdgeExtractor = new EdgeExtractor(packedGraph);
+    packedEdgeExtractor.acceptAll(packedWords);
+
+    Assert.assertEquals(packedGraph.toString(), graph.toString());
+    Assert.assertEquals(packedEdgeExtractor.getWordCount(), edgeExtractor.getWordCount());
+    Assert.assertEquals(packedEdgeExtractor.getCharactersCompared(), edgeExtractor.getCharactersCompared());
+    Assert.assertEquals(packedEdgeExtractor.getEdgePairCount(), edgeExtractor.getEdgePairCount());
+
+    ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+    try {
+      AlphabetDiscovery alphabetDiscovery = new AlphabetDiscovery(packedWords, forkJoinPool);
+      alphabetDiscovery.parallelThreshold = 100;
+      Assert.assertEquals(alphabetDiscovery.getGraph().toString(), graph.toString());
+      Assert.assertEquals(alphabetDiscovery.getAlphabet(), new AlphabetDiscovery(words).getAlphabet());
+    } finally {
+      forkJoinPool.shutdown();
+    }
+
+    Path path = Files.createTempFile("words", ".txt");
+    try {
+      Files.write(path, "ab\r\nad\n\nb\nbd".getBytes(StandardCharsets.UTF_8));
+      Assert.assertEquals(PackedWords.read(path), Arrays.asList("ab", "ad", "", "b", "bd"));
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  // wrapped arrays are read as they are and copied, not written, when words are added
+  public void testWrappedPackedWords() {
+    char[] characters = "abcbzz".toCharArray();
+    int[] offsets = {0, 2, 4, 0, 0, 0, 0};
+    PackedWords packedWords = new PackedWords(characters, offsets, 2);
+    Assert.assertEquals(packedWords, Arrays.asList("ab", "cb"));
+    Assert.assertEquals(new AlphabetDiscovery(packedWords).getAlphabet(), "abc");
+
+    packedWords.add("ca");
+    packedWords.add("");
+    Assert.assertEquals(packedWords, Arrays.asList("ab", "cb", "ca", ""));
+    Assert.assertEquals(new String(characters), "abcbzz");
+    Assert.assertArrayEquals(offsets, new int[] {0, 2, 4, 0, 0, 0, 0});
+
+    packedWords = new PackedWords("abcb".toCharArray(), new int[] {0, 2, 4}, 2);
+    for(int wordIndex = 0; wordIndex < 100; wordIndex++) {
+      packedWords.add("c" + wordIndex);
+    }
+    Assert.assertEquals(packedWords.size(), 102);
+    Assert.assertEquals(packedWords.get(101), "c99");
+
+    try {
+      new PackedWords("abcb".toCharArray(), new int[] {0, 3, 1}, 2);
+      Assert.fail();
+    } catch(IllegalArgumentException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains("before the start"));
+    }
+  }
+
+  public void testMismatch() {
+    char[] characters = (Strings.repeat("x", 1000) + "ab" + Strings.repeat("x", 1000) + "ac").toCharArray();
+    Assert.assertEquals(CharMismatch.mismatch(characters, 0, characters, 1002, 1002), 1001);
+    Assert.assertEquals(CharMismatch.mismatch(characters, 0, characters, 1002, 1001), 1001);
+    Assert.assertEquals(CharMismatch.mismatch(characters, 1000, characters, 2002, 2), 1);
+    Assert.assertEquals(CharMismatch.mismatch(characters, 0, characters, 1002, 0), 0);
+    // a range past the end fails the same way with and without the vectorized scan
+    try {
+      CharMismatch.mismatch("xxxx".toCharArray(), 0, "xxxx".toCharArray(), 1, 4);
+      Assert.fail();
+    } catch(ArrayIndexOutOfBoundsException e) {
+      Reporter.log(e.toString(), true);
+    }
+
+    String prefix = Strings.repeat("x", 100000);
+    PackedWords packedWords = PackedWords.of(Lists.newArrayList(prefix + "a", prefix + "ab", prefix + "b", prefix + "bac", prefix + "bc", "y"));
+    EdgeExtractor edgeExtractor = new EdgeExtractor(new PrecedenceGraph());
+    edgeExtractor.acceptAll(packedWords);
+    Assert.assertEquals(edgeExtractor.getGraph().getEdgeCount(), 3);
+    Assert.assertEquals(edgeExtractor.getEdgePairCount(), 3);
+  }
+
+  public void testPackedWordsValidation() {
+    PackedWords packedWords = PackedWords.of(Arrays.asList("ca", "cb", "ba", "bc", "ac"));
+    try {
+      new AlphabetDiscovery(packedWords).setValidating(true).getAlphabet();
+      Assert.fail();
+    } catch(InconsistentDictionaryException e) {
+      Assert.assertEquals(e.getReason(), InconsistentDictionaryException.Reason.CYCLE);
+      Assert.assertEquals(e.getWordPair().toString(), "4:\"bc\",\"ac\"");
+
+      // the pairs travel with the exception, for example to a remote caller
+      InconsistentDictionaryException copy = copy(e);
+      Assert.assertEquals(copy.getReason(), e.getReason());
+      Assert.assertEquals(copy.getCycle(), e.getCycle());
+      Assert.assertEquals(copy.getCycleWordPairs().toString(), e.getCycleWordPairs().toString());
+    }
+
+    try {
+      new AlphabetDiscovery(PackedWords.of(Arrays.asList("a", "bc", "b"))).setValidating(true).getAlphabet();
+      Assert.fail();
+    } catch(InconsistentDictionaryException e) {
+      Assert.assertEquals(e.getReason(), InconsistentDictionaryException.Reason.PREFIX_AFTER_EXTENSION);
+    }
+  }
+
+  static InconsistentDictionaryException copy(InconsistentDictionaryException exception) {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try(ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+        output.writeObject(exception);
+      }
+      try(ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+        return (InconsistentDictionaryException) input.readObject();
+      }
+    } catch(IOException | ClassNotFoundException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  static String shuffle(String characters, Random random) {
+    List<Character> characterList = Lists.newArrayList(Lists.charactersOf(characters));
+    Collections.shuffle(characterList, random);
+    StringBuilder shuffled = new StringBuilder();
+    for(Character character : characterList) {
+      shuffled.append(character);
+    }
+    return shuffled.toString();
+  }
+
+  // the recursive range splitting of the solution packages, recording edges as two character strings
+  static void processWords(List<String> words, int wordStartIndex, int wordCount, int characterSkipCount, Set<String> edges) {
+    int wordIndex = wordStartIndex;
+    int wordEndIndex = wordStartIndex + wordCount;
+
+    if(words.get(wordStartIndex).length() == characterSkipCount) {
+      wordIndex++;
+    }
+
+    char previousCharacter = words.get(wordIndex).charAt(characterSkipCount);
+    int rangeStartIndex = -1;
+    for(wordIndex++; wordIndex < wordEndIndex; wordIndex++) {
+      char currentCharacter = words.get(wordIndex).charAt(characterSkipCount);
+      if(currentCharacter == previousCharacter) {
+        if(rangeStartIndex < 0) {
+          rangeStartIndex = wordIndex - 1;
+        }
+      } else {
+        if(rangeStartIndex >= 0) {
+          processWords(words, rangeStartIndex, wordIndex - rangeStartIndex, characterSkipCount + 1, edges);
+          rangeStartIndex = -1;
+        }
+        edges.add("" + previousCharacter + currentCharacter);
+        previousCharacter = currentCharacter;
+      }
+    }
+
+    if(rangeStartIndex >= 0) {
+      processWords(words, rangeStartIndex, wordIndex - rangeStartIndex, characterSkipCount + 1, edges);
+    }
+  }
+
+}
@@ -0,0 +1,149 @@
+package interviews.graph.discovery;
+
+import interviews.graph.SyntheticDictionary;
+import org.junit.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+@Test
+public class GraphSnapshotTest {
+  @BeforeMethod
+  public void setUp(Method method)
+  {
+    Reporter.log("::" + method.getName(), true);
+    System.out.flush();
+  }
+
+  public void testSaveAndLoad() throws IOException {
+    List<String> words = SyntheticDictionary.generate(23, 300, 5000, 6, 2, false).getWords();
+    DiscoveredAlphabet discoveredAlphabet = AlphabetDiscoveryEngine.PRIMITIVE.discover(words);
+
+    Path path = Files.createTempFile("alphabet", ".snapshot");
+    try {
+      GraphSnapshot.save(discoveredAlphabet, path);
+      Reporter.log(Files.size(path) + " bytes", true);
+      DiscoveredAlphabet loadedAlphabet = GraphSnapshot.load(path);
+
+      Assert.assertEquals(loadedAlphabet.getAlphabet(), discoveredAlphabet.getAlphabet());
+      Assert.assertEquals(loadedAlphabet.getGraph().getEdgeCount(), discoveredAlphabet.getGraph().getEdgeCount());
+      Assert.assertEquals(loadedAlphabet.getGraph().toString(), discoveredAlphabet.getGraph().toString());
+      Assert.assertEquals(AlphabetDiscovery.computeAlphabet(loadedAlphabet.getGraph(), TieBreakPolicy.READY_ORDER),
+          discoveredAlphabet.getAlphabet());
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  public void testEmptyGraph() throws IOException {
+    Path path = Files.createTempFile("alphabet", ".snapshot");
+    try {
+      GraphSnapshot.save(new DiscoveredAlphabet(new PrecedenceGraph(), ""), path);
+      DiscoveredAlphabet loadedAlphabet = GraphSnapshot.load(path);
+
+      Assert.assertEquals(loadedAlphabet.getAlphabet(), "");
+      Assert.assertEquals(loadedAlphabet.getGraph().getSymbolCount(), 0);
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  public void testCorruptSnapshot() throws IOException {
+    Path path = Files.createTempFile("alphabet", ".snapshot");
+    try {
+      GraphSnapshot.save(AlphabetDiscoveryEngine.PRIMITIVE.discover(Arrays.asList("ab", "ad", "b", "c", "d")), path);
+      byte[] bytes = Files.readAllBytes(path);
+
+      bytes[GraphSnapshot.HEADER_SIZE] ^= 1;
+      Files.write(path, bytes);
+      try {
+        GraphSnapshot.load(path);
+        Assert.fail();
+      } catch(IOException e) {
+        Assert.assertTrue(e.getMessage(), e.getMessage().contains("checksum"));
+      }
+
+      Files.write(path, Arrays.copyOf(bytes, bytes.length - 2));
+      try {
+        GraphSnapshot.load(path);
+        Assert.fail();
+      } catch(IOException e) {
+        Assert.assertTrue(e.getMessage(), e.getMessage().contains("Truncated"));
+      }
+
+      // an alphabet that repeats a symbol, or holds a character that is not one
+      bytes[GraphSnapshot.HEADER_SIZE] ^= 1;
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      int alphabetPosition = GraphSnapshot.HEADER_SIZE + 2 * buffer.getInt(8);
+      byte[] repeatingAlphabet = bytes.clone();
+      ByteBuffer.wrap(repeatingAlphabet).putChar(alphabetPosition + 2, buffer.getChar(alphabetPosition));
+      assertCorrupt(path, repeatingAlphabet, "alphabet");
+      byte[] foreignAlphabet = bytes.clone();
+      ByteBuffer.wrap(foreignAlphabet).putChar(alphabetPosition, 'z');
+      assertCorrupt(path, foreignAlphabet, "alphabet");
+
+      // the alphabet of a lone word is not an order of the graph's symbols
+      try {
+        GraphSnapshot.save(AlphabetDiscoveryEngine.PRIMITIVE.discover(Arrays.asList("cat")), path);
+        Assert.fail();
+      } catch(IllegalArgumentException e) {
+        Assert.assertTrue(e.getMessage(), e.getMessage().contains("3 characters for 0 symbols"));
+      }
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  // offsets that pass the checksum but do not describe the stored successors
+  public void testCorruptOffsets() throws IOException {
+    Path path = Files.createTempFile("alphabet", ".snapshot");
+    try {
+      GraphSnapshot.save(AlphabetDiscoveryEngine.PRIMITIVE.discover(Arrays.asList("ab", "ad", "b", "c", "d")), path);
+      byte[] bytes = Files.readAllBytes(path);
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      int symbolCount = buffer.getInt(8);
+      int offsetsPosition = GraphSnapshot.HEADER_SIZE + 2 * symbolCount + 2 * buffer.getInt(16);
+
+      // ascending, but ending before the last successor
+      byte[] shortOffsets = bytes.clone();
+      for(int symbolId = 0; symbolId <= symbolCount; symbolId++) {
+        ByteBuffer.wrap(shortOffsets).putInt(offsetsPosition + 4 * symbolId, 0);
+      }
+      assertCorrupt(path, shortOffsets, "offsets");
+
+      byte[] descendingOffsets = bytes.clone();
+      ByteBuffer.wrap(descendingOffsets).putInt(offsetsPosition + 4, -1);
+      assertCorrupt(path, descendingOffsets, "offsets");
+
+      byte[] shiftedOffsets = bytes.clone();
+      ByteBuffer.wrap(shiftedOffsets).putInt(offsetsPosition, 1);
+      assertCorrupt(path, shiftedOffsets, "offsets");
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  // rewrites the checksum, so that only the named check can reject the snapshot
+  static void assertCorrupt(Path path, byte[] bytes, String section) throws IOException {
+    CRC32 crc = new CRC32();
+    crc.update(bytes, 0, bytes.length - 4);
+    ByteBuffer.wrap(bytes).putInt(bytes.length - 4, (int) crc.getValue());
+    Files.write(path, bytes);
+    try {
+      GraphSnapshot.load(path);
+      Assert.fail();
+    } catch(IOException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains(section));
+    }
+  }
+
+}
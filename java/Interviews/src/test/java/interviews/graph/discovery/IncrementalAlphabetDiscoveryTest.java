@@ -0,0 +1,188 @@
+package interviews.graph.discovery;
+
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+@Test
+public class IncrementalAlphabetDiscoveryTest {
+  @BeforeMethod
+  public void setUp(Method method)
+  {
+    Reporter.log("::" + method.getName(), true);
+    System.out.flush();
+  }
+
+  public void testReorder() {
+    IncrementalAlphabetDiscovery alphabetDiscovery = new IncrementalAlphabetDiscovery();
+    alphabetDiscovery.append("c");
+    alphabetDiscovery.append("d");
+    Assert.assertEquals(alphabetDiscovery.getAlphabet(), "cd");
+
+    // b comes after c in the order so far, and now has to move ahead of it
+    alphabetDiscovery.insert(0, "b");
+    IncrementalAlphabetDiscovery.UpdateCost updateCost = alphabetDiscovery.insert(0, "a");
+    Assert.assertEquals(alphabetDiscovery.getAlphabet(), "abcd");
+    Assert.assertEquals(updateCost.getSymbolsAdded(), 1);
+    Assert.assertEquals(updateCost.getEdgesAdded(), 1);
+
+    updateCost = alphabetDiscovery.insert(2, "bd");
+    Reporter.log(updateCost.toString(), true);
+    Assert.assertEquals(updateCost.getEdgesAdded(), 0);
+    Assert.assertEquals(alphabetDiscovery.getWords(), Lists.newArrayList("a", "b", "bd", "c", "d"));
+  }
+
+  public void testCycle() {
+    IncrementalAlphabetDiscovery alphabetDiscovery = new IncrementalAlphabetDiscovery();
+    alphabetDiscovery.append("ab");
+    alphabetDiscovery.append("ba");
+    assertRejected(alphabetDiscovery, 2, "a");
+    // a new symbol in the refused word is not kept either
+    assertRejected(alphabetDiscovery, 2, "ac");
+    Assert.assertEquals(alphabetDiscovery.getAlphabet(), "ab");
+    Assert.assertEquals(alphabetDiscovery.getGraph().getSymbolCount(), 2);
+    Assert.assertEquals(alphabetDiscovery.getGraph().getEdgeCount(), 1);
+  }
+
+  // a refused word leaves no symbol, edge or move behind
+  public void testRejectedInsertion() {
+    IncrementalAlphabetDiscovery alphabetDiscovery = new IncrementalAlphabetDiscovery();
+    for(String word : new String[] {"ab", "ba", "bc", "ca"}) {
+      alphabetDiscovery.append(word);
+    }
+    assertRejected(alphabetDiscovery, 4, "acz");
+    assertRejected(alphabetDiscovery, 9, "zz");
+    assertRejected(alphabetDiscovery, 2, "b");
+    Assert.assertEquals(alphabetDiscovery.getGraph().getSymbolId('z'), -1);
+
+    // words at random positions, most of them refused, some after reordering for their first edge
+    Random random = new Random(5);
+    alphabetDiscovery = new IncrementalAlphabetDiscovery();
+    int rejectedCount = 0;
+    for(int attempt = 0; attempt < 2000; attempt++) {
+      StringBuilder word = new StringBuilder();
+      int length = 1 + random.nextInt(4);
+      for(int characterIndex = 0; characterIndex < length; characterIndex++) {
+        word.append((char) ('a' + random.nextInt(12)));
+      }
+      int wordIndex = random.nextInt(alphabetDiscovery.getWords().size() + 1);
+      if(alphabetDiscovery.getWords().contains(word.toString())) {
+        continue;
+      }
+      if(!tryInsert(alphabetDiscovery, wordIndex, word.toString())) {
+        rejectedCount++;
+      }
+    }
+    Assert.assertTrue(rejectedCount > 100);
+
+    // the order kept is the one of the words kept
+    List<String> words = alphabetDiscovery.getWords();
+    String alphabet = alphabetDiscovery.getAlphabet();
+    for(int wordIndex = 1; wordIndex < words.size(); wordIndex++) {
+      String previousWord = words.get(wordIndex - 1);
+      String word = words.get(wordIndex);
+      int characterIndex = 0;
+      while(characterIndex < Math.min(previousWord.length(), word.length()) && previousWord.charAt(characterIndex) == word.charAt(characterIndex)) {
+        characterIndex++;
+      }
+      if(characterIndex < Math.min(previousWord.length(), word.length())) {
+        Assert.assertTrue(alphabet.indexOf(previousWord.charAt(characterIndex)) < alphabet.indexOf(word.charAt(characterIndex)));
+      }
+    }
+  }
+
+  // the first edge of the refused word reorders the symbols, the second closes a cycle
+  public void testRejectedAfterReorder() {
+    IncrementalAlphabetDiscovery alphabetDiscovery = new IncrementalAlphabetDiscovery();
+    alphabetDiscovery.insert(0, "ded");
+    alphabetDiscovery.insert(1, "bc");
+    alphabetDiscovery.insert(2, "aad");
+    alphabetDiscovery.insert(0, "de");
+    String alphabet = alphabetDiscovery.getAlphabet();
+    assertRejected(alphabetDiscovery, 1, "ddc");
+    Assert.assertEquals(alphabetDiscovery.getAlphabet(), alphabet);
+
+    // an insertion that adds and moves nothing keeps the cached alphabet, which must still hold
+    alphabetDiscovery.append("aadc");
+    alphabet = alphabetDiscovery.getAlphabet();
+    PrecedenceGraph graph = alphabetDiscovery.getGraph();
+    for(int symbolId = 0; symbolId < graph.getSymbolCount(); symbolId++) {
+      for(int successorId = graph.nextSuccessor(symbolId, 0); successorId >= 0; successorId = graph.nextSuccessor(symbolId, successorId + 1)) {
+        Assert.assertTrue(alphabet, alphabet.indexOf(graph.getCharacter(symbolId)) < alphabet.indexOf(graph.getCharacter(successorId)));
+      }
+    }
+    alphabetDiscovery.alphabet = null;
+    Assert.assertEquals(alphabetDiscovery.getAlphabet(), alphabet);
+  }
+
+  static void assertRejected(IncrementalAlphabetDiscovery alphabetDiscovery, int wordIndex, String word) {
+    Assert.assertFalse(tryInsert(alphabetDiscovery, wordIndex, word));
+  }
+
+  // returns false, with the state checked unchanged, when the word is refused
+  static boolean tryInsert(IncrementalAlphabetDiscovery alphabetDiscovery, int wordIndex, String word) {
+    String alphabet = alphabetDiscovery.getAlphabet();
+    String graph = alphabetDiscovery.getGraph().toString();
+    int symbolCount = alphabetDiscovery.getGraph().getSymbolCount();
+    int edgeCount = alphabetDiscovery.getGraph().getEdgeCount();
+    int wordCount = alphabetDiscovery.getWords().size();
+    try {
+      alphabetDiscovery.insert(wordIndex, word);
+      return true;
+    } catch(IllegalArgumentException | IndexOutOfBoundsException e) {
+      Assert.assertEquals(alphabetDiscovery.getAlphabet(), alphabet);
+      Assert.assertEquals(alphabetDiscovery.getGraph().toString(), graph);
+      Assert.assertEquals(alphabetDiscovery.getGraph().getSymbolCount(), symbolCount);
+      Assert.assertEquals(alphabetDiscovery.getGraph().getEdgeCount(), edgeCount);
+      Assert.assertEquals(alphabetDiscovery.getWords().size(), wordCount);
+      // the cached alphabet aside, the order itself is the one from before
+      alphabetDiscovery.alphabet = null;
+      Assert.assertEquals(alphabetDiscovery.getAlphabet(), alphabet);
+      return false;
+    }
+  }
+
+  public void testRandomInsertions() {
+    Random random = new Random(3);
+    List<String> words = new ArrayList<>();
+    for(int wordIndex = 0; wordIndex < 400; wordIndex++) {
+      StringBuilder word = new StringBuilder();
+      int length = 1 + random.nextInt(5);
+      for(int characterIndex = 0; characterIndex < length; characterIndex++) {
+        word.append((char) ('a' + random.nextInt(26)));
+      }
+      if(!words.contains(word.toString())) {
+        words.add(word.toString());
+      }
+    }
+
+    // insert the words in random order, each into its sorted position
+    IncrementalAlphabetDiscovery alphabetDiscovery = new IncrementalAlphabetDiscovery();
+    List<String> sortedWords = new ArrayList<>();
+    for(String word : words) {
+      int wordIndex = -Collections.binarySearch(sortedWords, word) - 1;
+      sortedWords.add(wordIndex, word);
+      alphabetDiscovery.insert(wordIndex, word);
+
+      String alphabet = alphabetDiscovery.getAlphabet();
+      PrecedenceGraph graph = alphabetDiscovery.getGraph();
+      for(int symbolId = 0; symbolId < graph.getSymbolCount(); symbolId++) {
+        for(int successorId = graph.nextSuccessor(symbolId, 0); successorId >= 0; successorId = graph.nextSuccessor(symbolId, successorId + 1)) {
+          Assert.assertTrue(alphabet.indexOf(graph.getCharacter(symbolId)) < alphabet.indexOf(graph.getCharacter(successorId)));
+        }
+      }
+    }
+
+    Assert.assertEquals(alphabetDiscovery.getWords(), sortedWords);
+    Assert.assertEquals(alphabetDiscovery.getAlphabet(), new AlphabetDiscovery(sortedWords).getAlphabet());
+  }
+
+}
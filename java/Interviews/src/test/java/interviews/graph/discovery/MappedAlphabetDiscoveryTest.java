@@ -0,0 +1,54 @@
+package interviews.graph.discovery;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@Test
+public class MappedAlphabetDiscoveryTest {
+  @BeforeMethod
+  public void setUp(Method method)
+  {
+    Reporter.log("::" + method.getName(), true);
+    System.out.flush();
+  }
+
+  public void testMatchesAlphabetDiscovery() throws IOException {
+    List<String> words = Lists.newArrayList(
+        "ab", "ac", "ad", "beb", "bfb", "bbb", "cgc", "chc", "ccc", "dgd", "ddd",
+        "d\u00E9", "d\u00E8", "d\u20AC", "d\uD83D\uDE00", "d\uD83D\uDE01", "d\uD83E\uDD14", "\u00E9");
+
+    Path path = Files.createTempFile("words", ".txt");
+    try {
+      Files.write(path, (Joiner.on("\r\n").join(words) + "\n").getBytes(StandardCharsets.UTF_8));
+
+      AlphabetDiscovery alphabetDiscovery = new AlphabetDiscovery(words);
+      MappedAlphabetDiscovery mappedAlphabetDiscovery = new MappedAlphabetDiscovery(path);
+
+      Reporter.log(mappedAlphabetDiscovery.getGraph().toString(), true);
+      System.out.flush();
+
+      Assert.assertEquals(mappedAlphabetDiscovery.getWordCount(), words.size());
+      Assert.assertEquals(mappedAlphabetDiscovery.getGraph().toString(), alphabetDiscovery.getGraph().toString());
+      Assert.assertEquals(mappedAlphabetDiscovery.getAlphabet(), alphabetDiscovery.getAlphabet());
+
+      // lines straddling mapping segments
+      MappedAlphabetDiscovery segmentedAlphabetDiscovery = new MappedAlphabetDiscovery(path);
+      segmentedAlphabetDiscovery.segmentSize = 16;
+      Assert.assertEquals(segmentedAlphabetDiscovery.getGraph().toString(), alphabetDiscovery.getGraph().toString());
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+}
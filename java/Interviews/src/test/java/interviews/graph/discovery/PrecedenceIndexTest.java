@@ -0,0 +1,97 @@
+package interviews.graph.discovery;
+
+import com.google.common.collect.Lists;
+import interviews.graph.SyntheticDictionary;
+import org.junit.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+
+@Test
+public class PrecedenceIndexTest {
+  @BeforeMethod
+  public void setUp(Method method)
+  {
+    Reporter.log("::" + method.getName(), true);
+    System.out.flush();
+  }
+
+  public void testPrecedence() {
+    PrecedenceIndex precedenceIndex = new PrecedenceIndex(
+        new AlphabetDiscovery(Lists.newArrayList("wrt", "wrf", "er", "ett", "rftt")).getGraph());
+
+    Assert.assertEquals(precedenceIndex.getPrecedence('w', 'f'), PrecedenceIndex.Precedence.BEFORE);
+    Assert.assertEquals(precedenceIndex.getPrecedence('f', 'w'), PrecedenceIndex.Precedence.AFTER);
+    Assert.assertEquals(precedenceIndex.getPrecedence('e', 'r'), PrecedenceIndex.Precedence.BEFORE);
+    Assert.assertEquals(precedenceIndex.getPrecedence('e', 'e'), PrecedenceIndex.Precedence.UNCONSTRAINED);
+    Assert.assertEquals(precedenceIndex.getPrecedence('e', 'z'), PrecedenceIndex.Precedence.UNCONSTRAINED);
+    Assert.assertEquals(precedenceIndex.between('w', 'f'), "ert");
+    Assert.assertEquals(precedenceIndex.between('f', 'w'), "");
+
+    precedenceIndex = new PrecedenceIndex(new AlphabetDiscovery(Lists.newArrayList("ab", "ad", "c")).getGraph());
+    Assert.assertEquals(precedenceIndex.getPrecedence('a', 'c'), PrecedenceIndex.Precedence.BEFORE);
+    Assert.assertEquals(precedenceIndex.getPrecedence('b', 'c'), PrecedenceIndex.Precedence.UNCONSTRAINED);
+    Assert.assertEquals(precedenceIndex.getPrecedence('d', 'a'), PrecedenceIndex.Precedence.UNCONSTRAINED);
+  }
+
+  // the index agrees with a search of the graph, across several 64 bit words per row
+  public void testMatchesPaths() {
+    SyntheticDictionary dictionary = SyntheticDictionary.generate(17, 300, 3000, 6, 0, false);
+    PrecedenceGraph graph = new AlphabetDiscovery(dictionary.getWords()).getGraph();
+    PrecedenceIndex precedenceIndex = new PrecedenceIndex(graph);
+    Assert.assertEquals(precedenceIndex.getSymbolCount(), graph.getSymbolCount());
+    Assert.assertEquals(precedenceIndex.getIndexedSymbolCount(), graph.getSymbolCount());
+    assertMatchesPaths(graph, precedenceIndex);
+  }
+
+  static void assertMatchesPaths(PrecedenceGraph graph, PrecedenceIndex precedenceIndex) {
+    for(int symbolId = 0; symbolId < graph.getSymbolCount(); symbolId++) {
+      for(int otherSymbolId = 0; otherSymbolId < graph.getSymbolCount(); otherSymbolId++) {
+        char character = graph.getCharacter(symbolId);
+        char otherCharacter = graph.getCharacter(otherSymbolId);
+        PrecedenceIndex.Precedence precedence = symbolId == otherSymbolId ? PrecedenceIndex.Precedence.UNCONSTRAINED
+            : graph.findPath(symbolId, otherSymbolId) != null ? PrecedenceIndex.Precedence.BEFORE
+            : graph.findPath(otherSymbolId, symbolId) != null ? PrecedenceIndex.Precedence.AFTER
+            : PrecedenceIndex.Precedence.UNCONSTRAINED;
+        Assert.assertEquals(precedenceIndex.getPrecedence(character, otherCharacter), precedence);
+
+        if(precedence == PrecedenceIndex.Precedence.BEFORE && symbolId % 7 == 0) {
+          String between = precedenceIndex.between(character, otherCharacter);
+          for(int betweenSymbolId = 0; betweenSymbolId < graph.getSymbolCount(); betweenSymbolId++) {
+            boolean isBetween = betweenSymbolId != symbolId && betweenSymbolId != otherSymbolId
+                && graph.findPath(symbolId, betweenSymbolId) != null && graph.findPath(betweenSymbolId, otherSymbolId) != null;
+            Assert.assertEquals(between.indexOf(graph.getCharacter(betweenSymbolId)) >= 0, isBetween);
+          }
+        }
+      }
+    }
+  }
+
+  public void testBounds() {
+    Assert.assertEquals(PrecedenceIndex.getRequiredBytes(64), 8 * 63);
+    Assert.assertEquals(PrecedenceIndex.getRequiredBytes(65), 8 * (63 * 2 + 2));
+
+    // over the bound only the last rows are kept, and earlier symbols search the graph
+    PrecedenceGraph graph = new AlphabetDiscovery(SyntheticDictionary.generate(19, 300, 1000, 4, 0, false).getWords()).getGraph();
+    Assert.assertTrue(PrecedenceIndex.getRequiredBytes(graph.getSymbolCount()) > 1024);
+    PrecedenceIndex precedenceIndex = new PrecedenceIndex(graph, 1024);
+    Assert.assertTrue(precedenceIndex.getIndexedSymbolCount() > 0);
+    Assert.assertTrue(precedenceIndex.getIndexedSymbolCount() < graph.getSymbolCount());
+    Assert.assertTrue(8 * precedenceIndex.rows.length <= 1024);
+    assertMatchesPaths(graph, precedenceIndex);
+
+    precedenceIndex = new PrecedenceIndex(graph, 0);
+    Assert.assertEquals(precedenceIndex.getIndexedSymbolCount(), 0);
+    assertMatchesPaths(graph, precedenceIndex);
+
+    try {
+      new PrecedenceIndex(new AlphabetDiscovery(Lists.newArrayList("ab", "ba", "bc", "ac")).getGraph());
+      Assert.fail();
+    } catch(IllegalArgumentException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains("cycle"));
+    }
+  }
+
+}
@@ -0,0 +1,144 @@
+package interviews.graph.discovery;
+
+import interviews.graph.SyntheticDictionary;
+import org.junit.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+@Test
+public class ShardSummaryTest {
+  @BeforeMethod
+  public void setUp(Method method)
+  {
+    Reporter.log("::" + method.getName(), true);
+    System.out.flush();
+  }
+
+  // cuts the words into shards at random points, some of them empty or single words
+  static List<List<String>> shard(List<String> words, int shardCount, Random random) {
+    int[] cuts = new int[shardCount + 1];
+    for(int cutIndex = 1; cutIndex < shardCount; cutIndex++) {
+      cuts[cutIndex] = random.nextInt(words.size() + 1);
+    }
+    cuts[shardCount] = words.size();
+    Arrays.sort(cuts);
+
+    List<List<String>> shards = new ArrayList<>();
+    for(int shardIndex = 0; shardIndex < shardCount; shardIndex++) {
+      shards.add(words.subList(cuts[shardIndex], cuts[shardIndex + 1]));
+    }
+    return shards;
+  }
+
+  public void testMergeMatchesWholeList() {
+    Random random = new Random(29);
+    List<String> words = SyntheticDictionary.generate(31, 60, 4000, 6, 3, false).getWords();
+    AlphabetDiscovery alphabetDiscovery = new AlphabetDiscovery(words);
+
+    for(int trial = 0; trial < 20; trial++) {
+      List<ShardSummary> shardSummaries = new ArrayList<>();
+      for(List<String> shard : shard(words, 1 + random.nextInt(12), random)) {
+        shardSummaries.add(new ShardSummary(shard));
+      }
+
+      // left to right, and pairwise as a tree
+      ShardSummary leftMerged = ShardSummary.EMPTY;
+      for(ShardSummary shardSummary : shardSummaries) {
+        leftMerged = leftMerged.merge(shardSummary);
+      }
+      while(shardSummaries.size() > 1) {
+        List<ShardSummary> mergedSummaries = new ArrayList<>();
+        for(int summaryIndex = 0; summaryIndex < shardSummaries.size(); summaryIndex += 2) {
+          mergedSummaries.add(summaryIndex + 1 < shardSummaries.size()
+              ? shardSummaries.get(summaryIndex).merge(shardSummaries.get(summaryIndex + 1))
+              : shardSummaries.get(summaryIndex));
+        }
+        shardSummaries = mergedSummaries;
+      }
+      ShardSummary treeMerged = shardSummaries.get(0);
+
+      for(ShardSummary merged : new ShardSummary[] {leftMerged, treeMerged}) {
+        Assert.assertEquals(merged.getGraph().toString(), alphabetDiscovery.getGraph().toString());
+        Assert.assertEquals(merged.getGraph().getEdgeCount(), alphabetDiscovery.getGraph().getEdgeCount());
+        Assert.assertEquals(merged.getAlphabet(), alphabetDiscovery.getAlphabet());
+        Assert.assertEquals(merged.getWordCount(), words.size());
+        Assert.assertEquals(merged.getFirstWord(), words.get(0));
+        Assert.assertEquals(merged.getLastWord(), words.get(words.size() - 1));
+      }
+    }
+  }
+
+  public void testSerialization() throws IOException {
+    List<String> words = Arrays.asList("ab", "ad", "b", "c", "d");
+    ShardSummary shardSummary = new ShardSummary(words.subList(0, 2)).merge(new ShardSummary(words.subList(2, 5)));
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    shardSummary.write(outputStream);
+    ShardSummary readSummary = ShardSummary.read(new ByteArrayInputStream(outputStream.toByteArray()));
+
+    Assert.assertEquals(readSummary.getGraph().toString(), shardSummary.getGraph().toString());
+    Assert.assertEquals(readSummary.getAlphabet(), "abcd");
+    Assert.assertEquals(new ShardSummary(words.subList(0, 1)).getAlphabet(), "ab");
+
+    outputStream.reset();
+    ShardSummary.EMPTY.write(outputStream);
+    Assert.assertSame(ShardSummary.read(new ByteArrayInputStream(outputStream.toByteArray())), ShardSummary.EMPTY);
+  }
+
+  // each shard is summarized by its own JVM, then the summaries are merged by another
+  public void testSeparateProcesses() throws IOException, InterruptedException {
+    List<String> words = SyntheticDictionary.generate(37, 30, 3000, 5, 2, false).getWords();
+    List<List<String>> shards = shard(words, 3, new Random(41));
+
+    Path directory = Files.createTempDirectory("shards");
+    try {
+      List<Process> processes = new ArrayList<>();
+      List<String> mergeArguments = new ArrayList<>(Arrays.asList("merge", directory.resolve("merged.summary").toString()));
+      for(int shardIndex = 0; shardIndex < shards.size(); shardIndex++) {
+        Path wordsPath = directory.resolve("shard" + shardIndex + ".txt");
+        Path summaryPath = directory.resolve("shard" + shardIndex + ".summary");
+        Files.write(wordsPath, shards.get(shardIndex), StandardCharsets.UTF_8);
+        processes.add(startJvm("summarize", wordsPath.toString(), summaryPath.toString()));
+        mergeArguments.add(summaryPath.toString());
+      }
+      for(Process process : processes) {
+        Assert.assertEquals(process.waitFor(), 0);
+      }
+
+      Process mergeProcess = startJvm(mergeArguments.toArray(new String[mergeArguments.size()]));
+      Assert.assertEquals(mergeProcess.waitFor(), 0);
+
+      ShardSummary merged = ShardSummary.read(directory.resolve("merged.summary"));
+      Assert.assertEquals(merged.getGraph().toString(), new AlphabetDiscovery(words).getGraph().toString());
+      Assert.assertEquals(merged.getAlphabet(), new AlphabetDiscovery(words).getAlphabet());
+    } finally {
+      for(File file : directory.toFile().listFiles()) {
+        Files.delete(file.toPath());
+      }
+      Files.delete(directory);
+    }
+  }
+
+  static Process startJvm(String... arguments) throws IOException {
+    List<String> command = new ArrayList<>(Arrays.asList(
+        System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+        "-cp", System.getProperty("java.class.path"), ShardSummary.class.getName()));
+    command.addAll(Arrays.asList(arguments));
+    return new ProcessBuilder(command).inheritIO().start();
+  }
+
+}
@@ -0,0 +1,110 @@
+package interviews.graph.discovery;
+
+import com.google.common.collect.Collections2;
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+@Test
+public class TopologicalOrdersTest {
+  @BeforeMethod
+  public void setUp(Method method)
+  {
+    Reporter.log("::" + method.getName(), true);
+    System.out.flush();
+  }
+
+  public void testAlphabets() {
+    AlphabetDiscovery alphabetDiscovery = new AlphabetDiscovery(Lists.newArrayList("ab", "ad", "cb", "cd"));
+
+    List<String> alphabets = new ArrayList<>();
+    for(Iterator<String> alphabetIterator = alphabetDiscovery.getAlphabets(); alphabetIterator.hasNext(); ) {
+      alphabets.add(alphabetIterator.next());
+    }
+
+    // a before c and b before d, with the symbols in first seen order a, b, d, c
+    Assert.assertEquals(alphabets, Lists.newArrayList("abdc", "abcd", "acbd", "badc", "bacd", "bdac"));
+    Assert.assertEquals(alphabetDiscovery.countAlphabets(100), 6);
+    Assert.assertEquals(alphabetDiscovery.countAlphabets(4), 4);
+    Assert.assertFalse(alphabetDiscovery.isAlphabetUnique());
+  }
+
+  public void testUniqueAlphabet() {
+    AlphabetDiscovery alphabetDiscovery = new AlphabetDiscovery(Lists.newArrayList("c", "cab", "cb", "a", "b"));
+
+    Assert.assertTrue(alphabetDiscovery.isAlphabetUnique());
+    Assert.assertEquals(alphabetDiscovery.countAlphabets(Long.MAX_VALUE), 1);
+    Assert.assertEquals(alphabetDiscovery.getAlphabets().next(), alphabetDiscovery.getAlphabet());
+
+    Assert.assertTrue(new AlphabetDiscovery(Lists.<String>newArrayList()).isAlphabetUnique());
+    Assert.assertTrue(new AlphabetDiscovery(Lists.newArrayList("a")).isAlphabetUnique());
+    Assert.assertFalse(new AlphabetDiscovery(Lists.newArrayList("ab")).isAlphabetUnique());
+  }
+
+  public void testCycle() {
+    AlphabetDiscovery alphabetDiscovery = new AlphabetDiscovery(Lists.newArrayList("a", "b", "a", "c"));
+
+    Assert.assertFalse(alphabetDiscovery.getAlphabets().hasNext());
+    Assert.assertEquals(alphabetDiscovery.countAlphabets(10), 0);
+    Assert.assertFalse(alphabetDiscovery.isAlphabetUnique());
+  }
+
+  public void testMatchesPermutations() {
+    Random random = new Random(5);
+    for(int graphIndex = 0; graphIndex < 50; graphIndex++) {
+      int symbolCount = 1 + random.nextInt(7);
+      PrecedenceGraph graph = new PrecedenceGraph();
+      List<Integer> symbolIds = new ArrayList<>();
+      for(int symbolId = 0; symbolId < symbolCount; symbolId++) {
+        graph.addSymbol((char) ('a' + symbolId));
+        symbolIds.add(symbolId);
+      }
+
+      // edges follow a hidden permutation, so the graph is acyclic
+      List<Integer> hiddenOrder = new ArrayList<>(symbolIds);
+      Collections.shuffle(hiddenOrder, random);
+      int edgeCount = random.nextInt(symbolCount * 2);
+      for(int edgeIndex = 0; edgeIndex < edgeCount; edgeIndex++) {
+        int fromIndex = random.nextInt(symbolCount);
+        int toIndex = random.nextInt(symbolCount);
+        if(fromIndex < toIndex) {
+          graph.addEdge(hiddenOrder.get(fromIndex), hiddenOrder.get(toIndex));
+        }
+      }
+
+      // permutations of ascending ids come out in lexicographic order
+      List<String> expectedOrders = new ArrayList<>();
+      for(List<Integer> permutation : Collections2.orderedPermutations(symbolIds)) {
+        boolean consistent = true;
+        for(int fromIndex = 0; fromIndex < symbolCount; fromIndex++) {
+          for(int toIndex = 0; toIndex < fromIndex; toIndex++) {
+            consistent &= !graph.hasEdge(permutation.get(fromIndex), permutation.get(toIndex));
+          }
+        }
+        if(consistent) {
+          expectedOrders.add(permutation.toString());
+        }
+      }
+
+      List<String> orders = new ArrayList<>();
+      for(TopologicalOrders topologicalOrders = new TopologicalOrders(graph); topologicalOrders.hasNext(); ) {
+        orders.add(Arrays.toString(topologicalOrders.next()));
+      }
+
+      Assert.assertEquals(orders, expectedOrders);
+      Assert.assertEquals(TopologicalOrders.count(graph, Long.MAX_VALUE), expectedOrders.size());
+      Assert.assertEquals(TopologicalSort.isUnique(graph), expectedOrders.size() == 1);
+    }
+  }
+
+}